@@ -0,0 +1,73 @@
+package ee.enefit.store.messaging;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import ee.enefit.store.dto.StockLevelViewDto;
+import ee.enefit.store.entity.SaleEntity;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON round trips use a mapper from {@link Jackson2ObjectMapperBuilder} with the two feature defaults Spring
+ * Boot's auto-configuration adds on top of it: dates and durations are written as ISO-8601 strings, not
+ * numeric timestamps. The application sets no {@code spring.jackson.*} overrides, so this matches its mapper.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ItemSoldEventBenchmark {
+
+    ObjectMapper mapper;
+    ItemSoldEvent event;
+    byte[] eventJson;
+    StockLevelViewDto stockLevel;
+    byte[] stockLevelJson;
+
+    @Setup
+    public void setUp() throws Exception {
+        mapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS,
+                        SerializationFeature.WRITE_DURATIONS_AS_TIMESTAMPS)
+                .build();
+        event = new ItemSoldEvent(UUID.randomUUID(), UUID.randomUUID(), 3,
+                1999L, 5997L, Instant.now());
+        eventJson = mapper.writeValueAsBytes(event);
+        stockLevel = new StockLevelViewDto(UUID.randomUUID(), "Laptop", 149999L, 42, Instant.now());
+        stockLevelJson = mapper.writeValueAsBytes(stockLevel);
+    }
+
+    @Benchmark
+    public byte[] serializeItemSoldEvent() throws Exception {
+        return mapper.writeValueAsBytes(event);
+    }
+
+    @Benchmark
+    public ItemSoldEvent deserializeItemSoldEvent() throws Exception {
+        return mapper.readValue(eventJson, ItemSoldEvent.class);
+    }
+
+    @Benchmark
+    public byte[] serializeStockLevel() throws Exception {
+        return mapper.writeValueAsBytes(stockLevel);
+    }
+
+    @Benchmark
+    public StockLevelViewDto deserializeStockLevel() throws Exception {
+        return mapper.readValue(stockLevelJson, StockLevelViewDto.class);
+    }
+
+    @Benchmark
+    public SaleEntity consumerMapping() {
+        return ItemSoldConsumer.toSale(event);
+    }
+}
@@ -0,0 +1,99 @@
+package ee.enefit.store.messaging;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the Kafka serdes the application can be configured with: Spring's JSON pair against
+ * {@link ItemSoldEventSerializer} / {@link ItemSoldEventDeserializer}. The serialize benchmarks also report a
+ * {@code bytes} secondary result; divided by the primary score it gives the payload size per event.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ItemSoldEventWireFormatBenchmark {
+
+    static final String TOPIC = "items.sold.v1";
+
+    JsonSerializer<ItemSoldEvent> jsonSerializer;
+    JsonDeserializer<ItemSoldEvent> jsonDeserializer;
+    ItemSoldEventSerializer binarySerializer;
+    ItemSoldEventDeserializer binaryDeserializer;
+    ItemSoldEvent event;
+    byte[] json;
+    byte[] binary;
+
+    @Setup
+    public void setUp() {
+        jsonSerializer = new JsonSerializer<ItemSoldEvent>().noTypeInfo();
+        jsonDeserializer = new JsonDeserializer<>(ItemSoldEvent.class, false);
+        binarySerializer = new ItemSoldEventSerializer();
+        binaryDeserializer = new ItemSoldEventDeserializer();
+        event = new ItemSoldEvent(UUID.randomUUID(), UUID.randomUUID(), 3,
+                1999L, 5997L, Instant.now());
+        json = jsonSerializer.serialize(TOPIC, event);
+        binary = binarySerializer.serialize(TOPIC, event);
+    }
+
+    @TearDown
+    public void tearDown() {
+        jsonSerializer.close();
+        jsonDeserializer.close();
+        binaryDeserializer.close();
+    }
+
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class PayloadSize {
+        public long bytes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            bytes = 0;
+        }
+    }
+
+    @Benchmark
+    public byte[] serializeJson(PayloadSize size) {
+        byte[] bytes = jsonSerializer.serialize(TOPIC, event);
+        size.bytes += bytes.length;
+        return bytes;
+    }
+
+    @Benchmark
+    public byte[] serializeBinary(PayloadSize size) {
+        byte[] bytes = binarySerializer.serialize(TOPIC, event);
+        size.bytes += bytes.length;
+        return bytes;
+    }
+
+    @Benchmark
+    public ItemSoldEvent deserializeJson() {
+        return jsonDeserializer.deserialize(TOPIC, json);
+    }
+
+    @Benchmark
+    public ItemSoldEvent deserializeBinary() {
+        return binaryDeserializer.deserialize(TOPIC, binary);
+    }
+
+    /** The consumer's JSON fallback during a migration, including format detection. */
+    @Benchmark
+    public ItemSoldEvent deserializeJsonViaDualFormat() {
+        return binaryDeserializer.deserialize(TOPIC, json);
+    }
+}
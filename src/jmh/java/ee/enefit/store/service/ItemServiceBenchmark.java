@@ -0,0 +1,52 @@
+package ee.enefit.store.service;
+
+import ee.enefit.store.dto.ItemResponse;
+import ee.enefit.store.entity.ItemEntity;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ItemServiceBenchmark {
+
+    @Param({"1", "7", "250"})
+    int quantity;
+
+    ItemEntity entity;
+    long priceCents;
+
+    @Setup
+    public void setUp() {
+        entity = ItemEntity.builder()
+                .id(UUID.randomUUID())
+                .name("Laptop")
+                .priceCents(149999L)
+                .quantity(42)
+                .version(3)
+                .createdAt(Instant.now())
+                .updatedAt(Instant.now())
+                .build();
+        priceCents = 1999L;
+    }
+
+    @Benchmark
+    public ItemResponse mapToResponse() {
+        return ItemService.mapToResponse(entity);
+    }
+
+    @Benchmark
+    public long sellLineTotal() {
+        return ItemService.lineTotal(priceCents, quantity);
+    }
+}
@@ -0,0 +1,57 @@
+package ee.enefit.store.load;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Collects per-request latencies and outcome counts for one operation.
+ */
+final class LatencyRecorder {
+
+    private final String operation;
+    private final ConcurrentLinkedQueue<Long> latencies = new ConcurrentLinkedQueue<>();
+    private final AtomicLong errors = new AtomicLong();
+    private final AtomicLong concurrentUpdates = new AtomicLong();
+
+    LatencyRecorder(String operation) {
+        this.operation = operation;
+    }
+
+    void record(long nanos, int status, String body) {
+        latencies.add(nanos);
+        if (status >= 400) {
+            errors.incrementAndGet();
+        }
+        if (status == 409 || status == 412 || (body != null && body.contains("Concurrent update detected"))) {
+            concurrentUpdates.incrementAndGet();
+        }
+    }
+
+    String report(long elapsedNanos) {
+        long[] sorted = latencies.stream().mapToLong(Long::longValue).toArray();
+        Arrays.sort(sorted);
+        double seconds = elapsedNanos / 1_000_000_000d;
+        return String.format("%-14s %8d req %9.0f req/s  p50 %7.2f ms  p99 %7.2f ms  p999 %7.2f ms  "
+                        + "errors %.3f%%  concurrent-update %.3f%%",
+                operation, sorted.length, sorted.length / seconds,
+                percentileMillis(sorted, 0.50), percentileMillis(sorted, 0.99), percentileMillis(sorted, 0.999),
+                rate(errors.get(), sorted.length), rate(concurrentUpdates.get(), sorted.length));
+    }
+
+    long count() {
+        return latencies.size();
+    }
+
+    private static double rate(long part, long total) {
+        return total == 0 ? 0 : part * 100d / total;
+    }
+
+    private static double percentileMillis(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1_000_000d;
+    }
+}
@@ -0,0 +1,236 @@
+package ee.enefit.store.load;
+
+import ee.enefit.store.StoreApplication;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.kafka.KafkaContainer;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Drives HTTP load at a fully wired application (Postgres, Kafka, outbox relay, sales consumer).
+ * Tunable with {@code -Dloadtest.clients}, {@code -Dloadtest.durationSeconds}, {@code -Dloadtest.items},
+ * {@code -Dloadtest.seedSalesPerItem} and {@code -Dloadtest.virtualThreads}; run with {@code ./gradlew loadTest}.
+ * Before any scenario runs, every item is sold a few times and the harness waits until the sales summary shows
+ * them, so report requests aggregate real rows from the start.
+ *
+ * <p>With {@code -Dloadtest.compareThreads=true} two applications are booted against the same containers, one on
+ * Tomcat's platform-thread pool and one with the {@code virtual-threads} profile, and every scenario runs
+ * against each in turn. The pool size is the same in both, so the database sees the same bounded concurrency;
+ * both applications stay up for the whole run and share the relay and consumer work.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class StoreLoadTest {
+
+    private static final int CLIENTS = Integer.getInteger("loadtest.clients", 64);
+    private static final int DURATION_SECONDS = Integer.getInteger("loadtest.durationSeconds", 30);
+    private static final int ITEMS = Integer.getInteger("loadtest.items", 200);
+    private static final int SEED_SALES_PER_ITEM = Integer.getInteger("loadtest.seedSalesPerItem", 5);
+    private static final boolean VIRTUAL_THREADS = Boolean.getBoolean("loadtest.virtualThreads");
+    private static final boolean COMPARE_THREADS = Boolean.getBoolean("loadtest.compareThreads");
+    private static final int STOCK = 100_000_000;
+    private static final Pattern ID = Pattern.compile("\"id\"\\s*:\\s*\"([0-9a-f-]{36})\"");
+
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16");
+    static final KafkaContainer KAFKA = new KafkaContainer("apache/kafka:3.7.0");
+
+    static final HttpClient HTTP = HttpClient.newBuilder()
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .build();
+
+    static List<Target> targets;
+
+    @BeforeAll
+    static void startApplications() throws Exception {
+        POSTGRES.start();
+        KAFKA.start();
+        targets = new ArrayList<>();
+        if (COMPARE_THREADS) {
+            targets.add(Target.start(false));
+            targets.add(Target.start(true));
+        } else {
+            targets.add(Target.start(VIRTUAL_THREADS));
+        }
+        seedSales();
+    }
+
+    @AfterAll
+    static void stopApplications() {
+        if (targets != null) {
+            targets.forEach(target -> target.app().close());
+        }
+    }
+
+    @Test
+    void mixedSellReadReportTraffic() throws Exception {
+        for (Target target : targets) {
+            LatencyRecorder sells = new LatencyRecorder("sell");
+            LatencyRecorder reads = new LatencyRecorder("read item");
+            LatencyRecorder summaries = new LatencyRecorder("sales summary");
+            LatencyRecorder stock = new LatencyRecorder("stock report");
+
+            long elapsed = drive(() -> {
+                String item = target.itemIds().get(ThreadLocalRandom.current().nextInt(target.itemIds().size()));
+                int roll = ThreadLocalRandom.current().nextInt(100);
+                if (roll < 50) {
+                    call(sells, target.sell(item));
+                } else if (roll < 85) {
+                    call(reads, target.get("/api/items/" + item));
+                } else if (roll < 95) {
+                    call(summaries, target.get("/api/reports/sales/summary"));
+                } else {
+                    call(stock, target.get("/api/reports/stock"));
+                }
+            });
+
+            print("mixed traffic", target, elapsed, sells, reads, summaries, stock);
+            assertThat(sells.count()).isPositive();
+        }
+    }
+
+    @Test
+    void hotItemSells() throws Exception {
+        for (Target target : targets) {
+            String hotItem = target.createItem("hot-" + UUID.randomUUID());
+            LatencyRecorder sells = new LatencyRecorder("hot sell");
+
+            long elapsed = drive(() -> call(sells, target.sell(hotItem)));
+
+            print("hot item", target, elapsed, sells);
+            assertThat(sells.count()).isPositive();
+        }
+    }
+
+    private static void seedSales() throws Exception {
+        for (Target target : targets) {
+            for (String item : target.itemIds()) {
+                for (int i = 0; i < SEED_SALES_PER_ITEM; i++) {
+                    assertThat(HTTP.send(target.sell(item), HttpResponse.BodyHandlers.discarding()).statusCode())
+                            .isEqualTo(200);
+                }
+            }
+        }
+        Target reporter = targets.get(0);
+        long deadline = System.nanoTime() + TimeUnit.MINUTES.toNanos(2);
+        while (true) {
+            String summary = HTTP.send(reporter.get("/api/reports/sales/summary"),
+                    HttpResponse.BodyHandlers.ofString()).body();
+            if (targets.stream().flatMap(target -> target.itemIds().stream()).allMatch(summary::contains)) {
+                return;
+            }
+            assertThat(System.nanoTime()).as("seeded sales reached the sales table").isLessThan(deadline);
+            Thread.sleep(200);
+        }
+    }
+
+    private static long drive(Operation operation) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(DURATION_SECONDS);
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor();
+        for (int c = 0; c < CLIENTS; c++) {
+            clients.submit(() -> {
+                start.await();
+                while (System.nanoTime() < deadline) {
+                    operation.run();
+                }
+                return null;
+            });
+        }
+        long began = System.nanoTime();
+        start.countDown();
+        clients.shutdown();
+        assertThat(clients.awaitTermination(DURATION_SECONDS + 120L, TimeUnit.SECONDS)).isTrue();
+        return System.nanoTime() - began;
+    }
+
+    private static void call(LatencyRecorder recorder, HttpRequest request) throws Exception {
+        long began = System.nanoTime();
+        HttpResponse<String> response = HTTP.send(request, HttpResponse.BodyHandlers.ofString());
+        recorder.record(System.nanoTime() - began, response.statusCode(),
+                response.statusCode() >= 400 ? response.body() : null);
+    }
+
+    private static void print(String scenario, Target target, long elapsedNanos, LatencyRecorder... recorders) {
+        System.out.printf("== %s: %d clients, %d s, virtual threads %s%n",
+                scenario, CLIENTS, DURATION_SECONDS, target.virtualThreads());
+        for (LatencyRecorder recorder : recorders) {
+            System.out.println(recorder.report(elapsedNanos));
+        }
+    }
+
+    /** One running application and the items seeded into it. */
+    private record Target(ConfigurableApplicationContext app, String baseUrl, boolean virtualThreads,
+                          List<String> itemIds) {
+
+        static Target start(boolean virtualThreads) throws Exception {
+            ConfigurableApplicationContext app = new SpringApplicationBuilder(StoreApplication.class)
+                    .properties(
+                            "server.port=0",
+                            "spring.profiles.active=" + (virtualThreads ? "virtual-threads" : "default"),
+                            "spring.datasource.url=" + POSTGRES.getJdbcUrl() + "&reWriteBatchedInserts=true",
+                            "spring.datasource.username=" + POSTGRES.getUsername(),
+                            "spring.datasource.password=" + POSTGRES.getPassword(),
+                            "spring.flyway.url=" + POSTGRES.getJdbcUrl(),
+                            "spring.flyway.user=" + POSTGRES.getUsername(),
+                            "spring.flyway.password=" + POSTGRES.getPassword(),
+                            "spring.kafka.bootstrap-servers=" + KAFKA.getBootstrapServers())
+                    .run();
+            Target target = new Target(app,
+                    "http://localhost:" + ((WebServerApplicationContext) app).getWebServer().getPort(),
+                    virtualThreads, new ArrayList<>(ITEMS));
+            for (int i = 0; i < ITEMS; i++) {
+                target.itemIds().add(target.createItem("load-" + UUID.randomUUID()));
+            }
+            return target;
+        }
+
+        HttpRequest sell(String itemId) {
+            return HttpRequest.newBuilder(URI.create(baseUrl + "/api/items/" + itemId + "/sell"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString("{\"quantity\":1}"))
+                    .build();
+        }
+
+        HttpRequest get(String path) {
+            return HttpRequest.newBuilder(URI.create(baseUrl + path)).GET().build();
+        }
+
+        String createItem(String name) throws Exception {
+            String body = "{\"name\":\"" + name + "\",\"price\":2.50,\"quantity\":" + STOCK + "}";
+            HttpResponse<String> response = HTTP.send(HttpRequest.newBuilder(URI.create(baseUrl + "/api/items"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(body))
+                    .build(), HttpResponse.BodyHandlers.ofString());
+            assertThat(response.statusCode()).isEqualTo(201);
+            Matcher m = ID.matcher(response.body());
+            assertThat(m.find()).isTrue();
+            return m.group(1);
+        }
+    }
+
+    @FunctionalInterface
+    private interface Operation {
+        void run() throws Exception;
+    }
+}
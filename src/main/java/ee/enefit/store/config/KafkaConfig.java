@@ -1,15 +1,72 @@
 package ee.enefit.store.config;
 
 import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.common.config.TopicConfig;
+import org.apache.kafka.common.serialization.StringDeserializer;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.kafka.ConcurrentKafkaListenerContainerFactoryConfigurer;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.boot.ssl.SslBundles;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.config.TopicBuilder;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+
+import java.util.Map;
 
 @Configuration
 public class KafkaConfig {
 
+    /**
+     * Partition count caps how many consumer threads can share the sales ingestion.
+     * Records are keyed by itemId, so all sales of one item stay ordered on a single partition.
+     */
+    @Bean
+    public NewTopic itemsSoldTopic(@Value("${app.topics.items-sold}") String topic,
+                                   @Value("${app.topics.items-sold-partitions:1}") int partitions,
+                                   @Value("${app.topics.items-sold-replicas:1}") short replicas) {
+        return TopicBuilder.name(topic)
+                .partitions(partitions)
+                .replicas(replicas)
+                .build();
+    }
+
+    /**
+     * Invalidations are only useful for as long as a cache entry can live, so the topic keeps them briefly.
+     * One partition: every node reads all of it, assigned manually by {@code ItemInvalidationListener}.
+     */
     @Bean
-    public NewTopic itemsSoldTopic(@Value("${app.topics.items-sold}") String topic) {
-        return new NewTopic(topic, 1, (short) 1);
+    public NewTopic itemInvalidationsTopic(@Value("${app.topics.item-invalidations}") String topic,
+                                           @Value("${app.topics.item-invalidations-replicas:1}") short replicas) {
+        return TopicBuilder.name(topic)
+                .partitions(1)
+                .replicas(replicas)
+                .config(TopicConfig.RETENTION_MS_CONFIG, "3600000")
+                .build();
+    }
+
+    /**
+     * Plain String listener factory for cache invalidations; the default factory deserializes ItemSoldEvent JSON.
+     * The consumer factory is built here rather than exposed as a bean so Boot's default one stays in place.
+     * It has no group id: the listener assigns its partition manually and never commits offsets.
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<Object, Object> itemInvalidationListenerFactory(
+            ConcurrentKafkaListenerContainerFactoryConfigurer configurer,
+            KafkaProperties kafkaProperties,
+            SslBundles sslBundles) {
+        Map<String, Object> config = kafkaProperties.buildConsumerProperties(sslBundles);
+        config.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        config.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        config.remove(ConsumerConfig.GROUP_ID_CONFIG);
+        config.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        config.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "latest");
+        config.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, 500);
+
+        ConcurrentKafkaListenerContainerFactory<Object, Object> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        configurer.configure(factory, new DefaultKafkaConsumerFactory<>(config));
+        return factory;
     }
 }
@@ -0,0 +1,104 @@
+package ee.enefit.store.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decides whether read-only transactions may go to the replica. The replica is polled for its replication lag;
+ * it is used only while the last poll succeeded, was recent, and measured no more than
+ * {@code app.datasource.replica.max-lag-ms}. Until the first successful poll everything goes to the primary.
+ *
+ * <p>The default lag query treats a caught-up standby as lag 0 even when the primary has been idle, and a server
+ * that is not in recovery as not lagging at all. Setups that measure lag differently, e.g. with a heartbeat
+ * table, can replace it with {@code app.datasource.replica.lag-query}; it must return the lag in seconds.
+ */
+@Slf4j
+public class ReplicaLagMonitor {
+
+    static final String STANDBY_LAG_QUERY = """
+            select case
+                       when not pg_is_in_recovery() then 0
+                       when pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() then 0
+                       else coalesce(extract(epoch from now() - pg_last_xact_replay_timestamp()), 0)
+                   end
+            """;
+
+    private final JdbcTemplate replica;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.datasource.replica.max-lag-ms:2000}")
+    private long maxLagMs;
+
+    @Value("${app.datasource.replica.lag-check-interval-ms:1000}")
+    private long checkIntervalMs;
+
+    @Value("${app.datasource.replica.lag-query:}")
+    private String lagQuery;
+
+    private volatile boolean lagAcceptable;
+    private volatile long checkedAtNanos;
+    private volatile double lagSeconds = Double.NaN;
+
+    public ReplicaLagMonitor(DataSource replica, MeterRegistry meterRegistry) {
+        this.replica = new JdbcTemplate(replica);
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    void init() {
+        if (lagQuery == null || lagQuery.isBlank()) {
+            lagQuery = STANDBY_LAG_QUERY;
+        }
+        // a hanging replica must not hold up the scheduler thread for long
+        replica.setQueryTimeout((int) Math.max(1, TimeUnit.MILLISECONDS.toSeconds(checkIntervalMs)));
+        Gauge.builder("store.datasource.replica.lag", this, m -> m.lagSeconds)
+                .description("Replication lag measured on the read replica, NaN when it could not be measured")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        Gauge.builder("store.datasource.replica.in.use", this, m -> m.isReplicaUsable() ? 1 : 0)
+                .description("1 while read-only transactions are routed to the replica, 0 while they use the primary")
+                .register(meterRegistry);
+        check();
+    }
+
+    @Scheduled(fixedDelayString = "${app.datasource.replica.lag-check-interval-ms:1000}")
+    public void check() {
+        boolean acceptable;
+        try {
+            Double lag = replica.queryForObject(lagQuery, Double.class);
+            lagSeconds = lag == null ? Double.NaN : lag;
+            acceptable = lag != null && lag * 1000 <= maxLagMs;
+        } catch (DataAccessException e) {
+            lagSeconds = Double.NaN;
+            acceptable = false;
+            if (lagAcceptable) {
+                log.warn("Replica lag check failed: {}", e.toString());
+            }
+        }
+        checkedAtNanos = System.nanoTime();
+        if (acceptable != lagAcceptable) {
+            log.info(acceptable
+                    ? "Routing read-only transactions to the replica (lag {} s)"
+                    : "Routing read-only transactions to the primary (replica lag {} s)", lagSeconds);
+        }
+        lagAcceptable = acceptable;
+    }
+
+    /**
+     * False after a failed check, a lag above the limit, or when no check has completed for three intervals
+     * (e.g. the check itself is stuck).
+     */
+    public boolean isReplicaUsable() {
+        return lagAcceptable
+                && System.nanoTime() - checkedAtNanos < TimeUnit.MILLISECONDS.toNanos(3 * checkIntervalMs);
+    }
+}
@@ -1,25 +1,35 @@
 package ee.enefit.store.controller;
 
 import ee.enefit.store.messaging.ItemSoldEvent;
+import ee.enefit.store.service.ItemImportService;
 import ee.enefit.store.service.ItemService;
+import ee.enefit.store.service.StockReservationService;
+import ee.enefit.store.dto.ItemImportResult;
+import ee.enefit.store.dto.ItemPage;
 import ee.enefit.store.dto.ItemRequest;
 import ee.enefit.store.dto.ItemResponse;
 import ee.enefit.store.dto.ItemUpdateRequest;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Min;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.io.InputStream;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -30,28 +40,73 @@ import java.util.UUID;
 public class ItemController {
 
     private final ItemService itemService;
+    private final StockReservationService reservations;
+    private final ItemImportService importService;
     public record SellRequest(@Min(1) int quantity) {}
 
-    @PostMapping
-    public ResponseEntity<ItemResponse> createItem(@RequestBody ItemRequest request) {
-        if (itemService.findByName(request.getName()).isPresent()) {
-            return ResponseEntity.status(HttpStatus.CONFLICT).build();
-        }
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    static final int DEFAULT_PAGE_SIZE = 50;
+    static final int MAX_PAGE_SIZE = 200;
+    static final String NDJSON = "application/x-ndjson";
 
+    @PostMapping
+    public ResponseEntity<ItemResponse> createItem(@Valid @RequestBody ItemRequest request) {
         ItemResponse created = itemService.createItem(request);
         return ResponseEntity.status(HttpStatus.CREATED).body(created);
     }
 
+    /** Bulk import of a streamed CSV file; see {@link ItemImportService} for the format. */
+    @PostMapping(path = "/import", consumes = "text/csv")
+    public ResponseEntity<ItemImportResult> importCsv(InputStream body) {
+        return importItems(body, ItemImportService.Format.CSV);
+    }
+
+    /** Bulk import of streamed newline-delimited JSON, one item object per line. */
+    @PostMapping(path = "/import", consumes = NDJSON)
+    public ResponseEntity<ItemImportResult> importNdjson(InputStream body) {
+        return importItems(body, ItemImportService.Format.NDJSON);
+    }
+
+    private ResponseEntity<ItemImportResult> importItems(InputStream body, ItemImportService.Format format) {
+        try {
+            return ResponseEntity.ok(importService.importItems(body, format));
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<ItemResponse> getItem(@PathVariable UUID id) {
         return itemService.getItemById(id)
-                .map(ResponseEntity::ok)
+                .map(item -> ResponseEntity.ok().eTag(String.valueOf(item.getVersion())).body(item))
                 .orElseGet(() -> ResponseEntity.notFound().build());
     }
 
-    @GetMapping(params = "name")
-    public ResponseEntity<List<ItemResponse>> getItemsByName(@RequestParam String name) {
-        List<ItemResponse> items = itemService.searchByName(name);
+    @GetMapping
+    public ResponseEntity<List<ItemResponse>> listItems(
+            @RequestParam(required = false) String name,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int limit
+    ) {
+        ItemPage page;
+        try {
+            page = itemService.listItems(name, cursor, Math.min(Math.max(limit, 1), MAX_PAGE_SIZE));
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest().build();
+        }
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.nextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.nextCursor());
+        }
+        return response.body(page.items());
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<List<ItemResponse>> searchItems(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int limit
+    ) {
+        List<ItemResponse> items = itemService.searchByRelevance(q, Math.min(Math.max(limit, 1), MAX_PAGE_SIZE));
         return ResponseEntity.ok(items);
     }
 
@@ -62,25 +117,67 @@ public class ItemController {
                 : ResponseEntity.notFound().build();
     }
 
+    /**
+     * An {@code If-Match} ETag (the item version) takes precedence over {@code version} in the body;
+     * either makes the update conditional, and a mismatch is answered with 412.
+     */
     @PutMapping("/{id}")
     public ResponseEntity<ItemResponse> updateItem(
             @PathVariable UUID id,
-            @RequestBody ItemUpdateRequest request
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @Valid @RequestBody ItemUpdateRequest request
     ) {
+        if (ifMatch != null) {
+            try {
+                request.setVersion(parseVersionTag(ifMatch));
+            } catch (NumberFormatException unmatchable) {
+                return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+            }
+        }
         Optional<ItemResponse> updated = itemService.updateItem(id, request);
         if (updated.isEmpty()) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
         }
-        if (itemService.isNameConflict(id, request.getName())) {
-            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        return ResponseEntity.ok()
+                .eTag(String.valueOf(updated.get().getVersion()))
+                .body(updated.get());
+    }
+
+    /**
+     * {@code null} for {@code *} (any version); otherwise the version carried in a strong ETag. If-Match uses
+     * the strong comparison, so a weak tag can never match and is rejected like a tag we did not issue.
+     */
+    private static Integer parseVersionTag(String ifMatch) {
+        String tag = ifMatch.trim();
+        if (tag.equals("*")) {
+            return null;
+        }
+        if (tag.startsWith("W/")) {
+            throw new NumberFormatException("Weak entity tag in If-Match: " + tag);
+        }
+        if (tag.length() >= 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+            tag = tag.substring(1, tag.length() - 1);
         }
-        return ResponseEntity.ok(updated.get());
+        return Integer.parseInt(tag);
     }
 
     @PostMapping("/{id}/sell")
     public ResponseEntity<ItemSoldEvent> sell(@PathVariable("id") UUID id,
                                               @Valid @RequestBody SellRequest body) {
-        ItemSoldEvent event = itemService.sell(id, body.quantity());
+        ItemSoldEvent event = reservations.isEnabled()
+                ? reservations.sell(id, body.quantity())
+                : itemService.sell(id, body.quantity());
         return ResponseEntity.ok(event);
     }
+
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<Void> versionMismatch() {
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+    }
+
+    /** Item names are unique ignoring case; create and rename rely on the database to enforce it. */
+    @ExceptionHandler(DuplicateKeyException.class)
+    public ResponseEntity<Void> nameConflict() {
+        return ResponseEntity.status(HttpStatus.CONFLICT).build();
+    }
 }
@@ -0,0 +1,27 @@
+package ee.enefit.store.controller;
+
+import ee.enefit.store.dto.CheckoutRequest;
+import ee.enefit.store.messaging.ItemSoldEvent;
+import ee.enefit.store.service.OrderService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/orders")
+@RequiredArgsConstructor
+public class OrderController {
+
+    private final OrderService orderService;
+
+    @PostMapping("/checkout")
+    public ResponseEntity<List<ItemSoldEvent>> checkout(@Valid @RequestBody CheckoutRequest request) {
+        return ResponseEntity.ok(orderService.checkout(request.lines()));
+    }
+}
@@ -1,32 +1,76 @@
 package ee.enefit.store.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import ee.enefit.store.dto.SoldItemAggregateDto;
 import ee.enefit.store.dto.StockLevelViewDto;
 import ee.enefit.store.service.ReportService;
+import ee.enefit.store.service.SalesExportService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.Instant;
 import java.time.LocalDate;
 import java.time.ZoneOffset;
 import java.util.List;
+import java.util.Locale;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/api/reports")
 @RequiredArgsConstructor
 public class ReportController {
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    private static final MediaType CSV = MediaType.parseMediaType("text/csv;charset=UTF-8");
+
     private final ReportService reportService;
+    private final SalesExportService salesExportService;
+    private final ObjectMapper objectMapper;
+
+    @Value("${app.reports.stock-page-size:500}")
+    private int stockPageSize;
 
     @GetMapping("/stock")
     public ResponseEntity<List<StockLevelViewDto>> getStockLevels() {
         return ResponseEntity.ok(reportService.getCurrentStockLevels());
     }
 
+    /**
+     * Same rows as {@link #getStockLevels()}, written as NDJSON one keyset page at a time,
+     * so memory use does not grow with the catalogue and the first rows go out immediately.
+     */
+    @GetMapping(value = "/stock/stream", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> streamStockLevels() {
+        ObjectWriter writer = objectMapper.writerFor(StockLevelViewDto.class);
+        StreamingResponseBody body = out -> {
+            String after = null;
+            List<StockLevelViewDto> page;
+            do {
+                page = reportService.getStockLevelsPage(after, stockPageSize);
+                for (StockLevelViewDto row : page) {
+                    out.write(writer.writeValueAsBytes(row));
+                    out.write('\n');
+                }
+                out.flush();
+                if (!page.isEmpty()) {
+                    after = page.get(page.size() - 1).name();
+                }
+            } while (page.size() == stockPageSize);
+        };
+        return ResponseEntity.ok().contentType(NDJSON).body(body);
+    }
+
     @GetMapping("/sales/summary")
     public ResponseEntity<List<SoldItemAggregateDto>> getSoldItemsSummary(
             @RequestParam(required = false)
@@ -44,4 +88,81 @@ public class ReportController {
         List<SoldItemAggregateDto> result = reportService.getSoldItemsSummary(fromInstant, toInstant);
         return ResponseEntity.ok(result);
     }
+
+    /**
+     * Raw sales sold from the start of {@code from} to the end of {@code to} (UTC days, both optional), as CSV
+     * or NDJSON ({@code format}). Rows are streamed from a database cursor as they are read; the body is
+     * gzip-compressed when the client accepts it.
+     */
+    @GetMapping("/sales/export")
+    public ResponseEntity<StreamingResponseBody> exportSales(
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+
+        SalesExportService.Format exportFormat;
+        try {
+            exportFormat = SalesExportService.Format.valueOf(format.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (from != null && to != null && from.isAfter(to)) {
+            return ResponseEntity.badRequest().build();
+        }
+        Instant fromInstant = (from == null)
+                ? Instant.EPOCH
+                : from.atStartOfDay(ZoneOffset.UTC).toInstant();
+        Instant toInstant = (to == null)
+                ? Instant.parse("9999-12-31T23:59:59Z")
+                : to.plusDays(1).atStartOfDay(ZoneOffset.UTC).toInstant();
+        boolean gzip = acceptsGzip(acceptEncoding);
+
+        StreamingResponseBody body = out -> {
+            if (gzip) {
+                GZIPOutputStream compressed = new GZIPOutputStream(out, 1 << 16);
+                salesExportService.exportSales(fromInstant, toInstant, exportFormat, compressed);
+                compressed.finish();
+            } else {
+                salesExportService.exportSales(fromInstant, toInstant, exportFormat, out);
+            }
+        };
+
+        String filename = "sales"
+                + (from == null ? "" : "_from_" + from)
+                + (to == null ? "" : "_to_" + to)
+                + (exportFormat == SalesExportService.Format.CSV ? ".csv" : ".ndjson");
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(exportFormat == SalesExportService.Format.CSV ? CSV : NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename(filename).build().toString())
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
+    }
+
+    /** True if {@code gzip} is listed in {@code Accept-Encoding} and not refused with {@code q=0}. */
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            if (!parts[0].trim().equalsIgnoreCase("gzip")) {
+                continue;
+            }
+            for (int i = 1; i < parts.length; i++) {
+                String param = parts[i].replace(" ", "");
+                if (param.matches("(?i)q=0(\\.0{0,3})?")) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return false;
+    }
 }
@@ -0,0 +1,21 @@
+package ee.enefit.store.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+import java.util.UUID;
+
+public record CheckoutRequest(
+        @NotEmpty @Size(max = CheckoutRequest.MAX_LINES) List<@Valid Line> lines
+) {
+    public static final int MAX_LINES = 500;
+    /** With at most {@link #MAX_LINES} lines, merged lines of one item cannot overflow an {@code int}. */
+    public static final int MAX_LINE_QUANTITY = 1_000_000;
+
+    public record Line(@NotNull UUID itemId, @Min(1) @Max(MAX_LINE_QUANTITY) int quantity) {}
+}
@@ -0,0 +1,18 @@
+package ee.enefit.store.dto;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk import. {@code received} counts data rows; each one was either imported, rejected as
+ * {@code invalid}, or skipped because its name was taken ({@code conflicts}). {@code problems} lists the first
+ * of the invalid and conflicting rows by line number (the CSV header is line 1).
+ */
+public record ItemImportResult(
+        long received,
+        long imported,
+        long invalid,
+        long conflicts,
+        List<Problem> problems
+) {
+    public record Problem(long line, String reason) {}
+}
@@ -0,0 +1,11 @@
+package ee.enefit.store.dto;
+
+import java.util.List;
+
+/**
+ * One page of items; {@code nextCursor} is {@code null} on the last page.
+ */
+public record ItemPage(
+        List<ItemResponse> items,
+        String nextCursor
+) {}
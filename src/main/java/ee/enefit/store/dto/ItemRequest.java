@@ -1,16 +1,39 @@
 package ee.enefit.store.dto;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
-import java.math.BigDecimal;
-
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
 public class ItemRequest {
+
+    public static final int MAX_NAME_LENGTH = 255;
+    /** Postgres text cannot hold NUL, so such names are rejected up front rather than by the insert. */
+    public static final String WITHOUT_NUL = "[^\\x00]*";
+
+    @NotBlank(message = "Name is required")
+    @Size(max = MAX_NAME_LENGTH, message = "Name must be between 1 and " + MAX_NAME_LENGTH + " characters")
+    @Pattern(regexp = WITHOUT_NUL, message = "Name contains a NUL character")
     private String name;
-    private BigDecimal price;
+
+    @JsonProperty("price")
+    @JsonSerialize(using = Money.Serializer.class)
+    @JsonDeserialize(using = Money.Deserializer.class)
+    @NotNull(message = "Price must be greater than 0")
+    @Positive(message = "Price must be greater than 0")
+    private Long priceCents;
+
+    @Min(value = 0, message = "Quantity must be zero or positive")
     private int quantity;
 }
@@ -1,9 +1,11 @@
 package ee.enefit.store.dto;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 
-import java.math.BigDecimal;
 import java.util.UUID;
 
 @Data
@@ -11,6 +13,13 @@ import java.util.UUID;
 public class ItemResponse {
     private UUID id;
     private String name;
-    private BigDecimal price;
+
+    @JsonProperty("price")
+    @JsonSerialize(using = Money.Serializer.class)
+    @JsonDeserialize(using = Money.Deserializer.class)
+    private long priceCents;
+
     private int quantity;
+    /** Row version; also sent as the ETag and accepted back in If-Match. */
+    private int version;
 }
@@ -1,7 +1,10 @@
 package ee.enefit.store.dto;
 
-import jakarta.validation.constraints.DecimalMin;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Positive;
 import jakarta.validation.constraints.Size;
 import lombok.Getter;
 import lombok.Setter;
@@ -10,11 +13,16 @@ import lombok.Setter;
 @Setter
 public class ItemUpdateRequest {
 
-    @Size(min = 1, max = 255, message = "Name must be between 1 and 255 characters")
+    @Size(min = 1, max = ItemRequest.MAX_NAME_LENGTH,
+            message = "Name must be between 1 and " + ItemRequest.MAX_NAME_LENGTH + " characters")
+    @Pattern(regexp = "(?s).*\\S.*", message = "Name is required")
+    @Pattern(regexp = ItemRequest.WITHOUT_NUL, message = "Name contains a NUL character")
     private String name;
 
-    @DecimalMin(value = "0.0", inclusive = false, message = "Price must be greater than 0")
-    private Double price;
+    @JsonProperty("price")
+    @JsonDeserialize(using = Money.Deserializer.class)
+    @Positive(message = "Price must be greater than 0")
+    private Long priceCents;
 
     @Min(value = 0, message = "Quantity must be zero or positive")
     private Integer quantity;
@@ -0,0 +1,58 @@
+package ee.enefit.store.dto;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Amounts are carried as {@code long} minor units (cents) everywhere except JSON, where they stay decimal
+ * numbers such as {@code 19.99}. Fields annotated with {@link Serializer} / {@link Deserializer} convert at
+ * that edge.
+ *
+ * <p>Input is rounded half-up to {@value #SCALE} decimals, which is what the former {@code NUMERIC(12,2)}
+ * columns did on insert.
+ */
+public final class Money {
+
+    public static final int SCALE = 2;
+
+    private Money() {
+    }
+
+    /**
+     * @throws ArithmeticException if the amount does not fit in a {@code long} number of cents
+     */
+    public static long toMinorUnits(BigDecimal amount) {
+        return amount.setScale(SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    public static BigDecimal toDecimal(long minorUnits) {
+        return BigDecimal.valueOf(minorUnits, SCALE);
+    }
+
+    public static class Serializer extends JsonSerializer<Long> {
+        @Override
+        public void serialize(Long minorUnits, JsonGenerator gen, SerializerProvider serializers) throws IOException {
+            gen.writeNumber(toDecimal(minorUnits));
+        }
+    }
+
+    public static class Deserializer extends JsonDeserializer<Long> {
+        @Override
+        public Long deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            BigDecimal amount = ctxt.readValue(p, BigDecimal.class);
+            try {
+                return amount == null ? null : toMinorUnits(amount);
+            } catch (ArithmeticException e) {
+                return (Long) ctxt.handleWeirdNumberValue(Long.class, amount, "amount out of range");
+            }
+        }
+    }
+}
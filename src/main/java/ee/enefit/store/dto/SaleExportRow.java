@@ -0,0 +1,18 @@
+package ee.enefit.store.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/** One raw sale with the current name of its item, as written by the sales export. */
+public record SaleExportRow(
+        UUID saleId,
+        Instant soldAt,
+        UUID itemId,
+        String itemName,
+        int quantity,
+        @JsonProperty("priceAtSale") @JsonSerialize(using = Money.Serializer.class) long priceAtSaleCents,
+        @JsonProperty("total") @JsonSerialize(using = Money.Serializer.class) long totalCents
+) {}
@@ -1,6 +1,8 @@
 package ee.enefit.store.dto;
 
-import java.math.BigDecimal;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
 import java.time.Instant;
 import java.util.UUID;
 
@@ -8,6 +10,6 @@ public record SoldItemAggregateDto(
         UUID itemId,
         String name,
         Long unitsSold,
-        BigDecimal revenue,
+        @JsonProperty("revenue") @JsonSerialize(using = Money.Serializer.class) Long revenueCents,
         Instant lastSoldAt
 ) {}
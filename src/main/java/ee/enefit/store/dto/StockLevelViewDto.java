@@ -1,13 +1,19 @@
 package ee.enefit.store.dto;
 
-import java.math.BigDecimal;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
 import java.time.Instant;
 import java.util.UUID;
 
 public record StockLevelViewDto(
         UUID id,
         String name,
-        BigDecimal price,
+        @JsonProperty("price")
+        @JsonSerialize(using = Money.Serializer.class)
+        @JsonDeserialize(using = Money.Deserializer.class)
+        long priceCents,
         Integer stockQuantity,
         Instant lastUpdated
 ) {}
@@ -2,15 +2,11 @@ package ee.enefit.store.entity;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.PrePersist;
 import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
-import jakarta.persistence.UniqueConstraint;
 import jakarta.persistence.Version;
-import java.math.BigDecimal;
 import java.time.Instant;
 import java.util.UUID;
 import lombok.AllArgsConstructor;
@@ -19,11 +15,12 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
+/**
+ * Names are unique ignoring case; the migration-managed unique index {@code uk_items_name} on {@code lower(name)}
+ * enforces it, which a JPA {@code @UniqueConstraint} cannot express.
+ */
 @Entity
-@Table(
-        name = "items",
-        uniqueConstraints = @UniqueConstraint(name = "uk_items_name", columnNames = "name")
-)
+@Table(name = "items")
 @Getter
 @Setter
 @NoArgsConstructor
@@ -32,14 +29,14 @@ import lombok.Setter;
 public class ItemEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @GeneratedUuidV7
     private UUID id;
 
     @Column(nullable = false, length = 255)
     private String name;
 
-    @Column(nullable = false, precision = 12, scale = 2)
-    private BigDecimal price;
+    @Column(name = "price_cents", nullable = false)
+    private long priceCents;
 
     @Column(nullable = false)
     private int quantity;
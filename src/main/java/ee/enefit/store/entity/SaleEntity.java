@@ -4,7 +4,6 @@ import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
-import java.math.BigDecimal;
 import java.time.Instant;
 import java.util.UUID;
 import lombok.AllArgsConstructor;
@@ -32,11 +31,11 @@ public class SaleEntity {
     @Column(nullable = false)
     private int quantity;
 
-    @Column(name = "price_at_sale", nullable = false, precision = 12, scale = 2)
-    private BigDecimal priceAtSale;
+    @Column(name = "price_at_sale_cents", nullable = false)
+    private long priceAtSaleCents;
 
-    @Column(nullable = false, precision = 12, scale = 2)
-    private BigDecimal total;
+    @Column(name = "total_cents", nullable = false)
+    private long totalCents;
 
     @Column(name = "sold_at", nullable = false)
     private Instant soldAt;
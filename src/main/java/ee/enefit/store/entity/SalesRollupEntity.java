@@ -0,0 +1,55 @@
+package ee.enefit.store.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.UUID;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Units and revenue of one item within one hour, starting at {@code bucketStart} (UTC-aligned).
+ */
+@Entity
+@Table(name = "sales_rollup")
+@IdClass(SalesRollupEntity.Key.class)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SalesRollupEntity {
+
+    @Id
+    @Column(name = "item_id", nullable = false)
+    private UUID itemId;
+
+    @Id
+    @Column(name = "bucket_start", nullable = false)
+    private Instant bucketStart;
+
+    @Column(nullable = false)
+    private long units;
+
+    @Column(name = "revenue_cents", nullable = false)
+    private long revenueCents;
+
+    @Column(name = "last_sold_at", nullable = false)
+    private Instant lastSoldAt;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private UUID itemId;
+        private Instant bucketStart;
+    }
+}
@@ -0,0 +1,29 @@
+package ee.enefit.store.entity;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Time-ordered UUIDs (RFC 9562 version 7): 48 bits of Unix milliseconds, then a 12-bit counter in
+ * {@code rand_a}, then 62 random bits. New keys land at the right edge of the primary-key B-tree instead of
+ * on random pages, which keeps insert-heavy indexes dense and cuts page splits and WAL volume.
+ *
+ * <p>Ids from one JVM are strictly increasing: within a millisecond the counter advances, and if it runs out
+ * the timestamp is borrowed from the next millisecond.
+ */
+public final class UuidV7 {
+
+    private static final AtomicLong LAST = new AtomicLong();
+
+    private UuidV7() {
+    }
+
+    public static UUID next() {
+        long now = System.currentTimeMillis() << 12;
+        long tick = LAST.updateAndGet(last -> Math.max(last + 1, now));
+        long msb = (tick >>> 12) << 16 | 0x7000L | (tick & 0xFFFL);
+        long lsb = ThreadLocalRandom.current().nextLong() & 0x3FFF_FFFF_FFFF_FFFFL | 0x8000_0000_0000_0000L;
+        return new UUID(msb, lsb);
+    }
+}
@@ -0,0 +1,34 @@
+package ee.enefit.store.messaging;
+
+import ee.enefit.store.service.ItemCache;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.annotation.TopicPartition;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.cache.items.invalidation-enabled", havingValue = "true", matchIfMissing = true)
+public class ItemInvalidationListener {
+
+    private final ItemCache itemCache;
+
+    /**
+     * Every node needs every invalidation, so each instance assigns itself the topic's single partition without
+     * a consumer group (nothing is committed, no group is left behind on restart) and starts from the latest
+     * offset; older messages only concern entries it has never cached. A record carries one or more
+     * comma-separated ids.
+     */
+    @KafkaListener(id = "itemInvalidationListener",
+            idIsGroup = false,
+            topicPartitions = @TopicPartition(topic = "${app.topics.item-invalidations}", partitions = "0"),
+            containerFactory = "itemInvalidationListenerFactory")
+    public void handle(String itemIds) {
+        for (String id : itemIds.split(",")) {
+            itemCache.evictLocal(UUID.fromString(id.trim()));
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package ee.enefit.store.messaging;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.boot.ssl.SslBundles;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Broadcasts item ids whose cached copies are stale. Uses its own String producer so the application's
+ * JSON {@link KafkaTemplate} stays the only template bean.
+ *
+ * <p>{@link #publish} only queues the ids; a dedicated thread sends them every
+ * {@code app.cache.items.invalidation-flush-ms} as comma-separated batches, so writes never wait on the broker
+ * and repeated writes to one item between flushes cost a single broadcast. While the broker is unreachable at
+ * most {@code app.cache.items.invalidation-max-pending} ids are kept; invalidations dropped beyond that, or lost
+ * in a failed send, are bounded by the cache TTL like any other lost broadcast.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.cache.items.invalidation-enabled", havingValue = "true", matchIfMissing = true)
+public class ItemInvalidationPublisher implements DisposableBean {
+
+    static final int MAX_IDS_PER_RECORD = 1_000;
+
+    private final DefaultKafkaProducerFactory<String, String> producerFactory;
+    private final KafkaTemplate<String, String> kafkaTemplate;
+    private final Set<UUID> pending = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService sender = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("item-invalidations").daemon().factory());
+
+    @Value("${app.topics.item-invalidations}")
+    private String topic;
+
+    @Value("${app.cache.items.invalidation-flush-ms:20}")
+    private long flushIntervalMs;
+
+    @Value("${app.cache.items.invalidation-max-pending:100000}")
+    private int maxPending;
+
+    public ItemInvalidationPublisher(KafkaProperties kafkaProperties, SslBundles sslBundles) {
+        Map<String, Object> config = kafkaProperties.buildProducerProperties(sslBundles);
+        config.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        config.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        this.producerFactory = new DefaultKafkaProducerFactory<>(config);
+        this.kafkaTemplate = new KafkaTemplate<>(producerFactory);
+    }
+
+    @PostConstruct
+    void start() {
+        sender.scheduleWithFixedDelay(this::flush, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    /** Queues the ids for the next batch; never blocks. */
+    public void publish(Collection<UUID> itemIds) {
+        if (pending.size() >= maxPending) {
+            log.warn("Dropping {} cache invalidations, {} already waiting for the broker", itemIds.size(),
+                    pending.size());
+            return;
+        }
+        pending.addAll(itemIds);
+    }
+
+    void flush() {
+        try {
+            List<UUID> batch = new ArrayList<>(MAX_IDS_PER_RECORD);
+            Iterator<UUID> it = pending.iterator();
+            while (it.hasNext()) {
+                batch.add(it.next());
+                it.remove();
+                if (batch.size() == MAX_IDS_PER_RECORD || !it.hasNext()) {
+                    send(batch);
+                    batch = new ArrayList<>(MAX_IDS_PER_RECORD);
+                }
+            }
+        } catch (RuntimeException e) {
+            // e.g. metadata unavailable after max.block.ms; the next flush carries on with newer ids
+            log.warn("Failed to broadcast cache invalidations: {}", e.toString());
+        }
+    }
+
+    private void send(List<UUID> ids) {
+        String value = ids.stream().map(UUID::toString).collect(Collectors.joining(","));
+        kafkaTemplate.send(topic, value).whenComplete((res, ex) -> {
+            if (ex != null) {
+                log.warn("Failed to broadcast cache invalidation for {} items: {}", ids.size(), ex.getMessage());
+            }
+        });
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        sender.shutdown();
+        sender.awaitTermination(5, TimeUnit.SECONDS);
+        flush();
+        producerFactory.destroy();
+    }
+}
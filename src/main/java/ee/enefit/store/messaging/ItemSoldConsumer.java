@@ -2,7 +2,8 @@ package ee.enefit.store.messaging;
 
 import ee.enefit.store.entity.SaleEntity;
 import ee.enefit.store.repository.SaleRepository;
-import java.util.Optional;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
 import lombok.RequiredArgsConstructor;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.stereotype.Component;
@@ -14,23 +15,33 @@ public class ItemSoldConsumer {
 
     private final SaleRepository saleRepository;
 
-    @KafkaListener(topics = "${app.topics.items-sold}", groupId = "${spring.kafka.consumer.group-id}")
+    /**
+     * Receives a whole poll at once and stores it in one transaction with a single batched insert.
+     * Sales already stored under the same saleId, and sales of items deleted since, are skipped by the insert
+     * itself, so one such event cannot fail the whole poll.
+     * Each of the {@code app.consumer.items-sold-concurrency} threads owns a share of the topic's partitions.
+     */
+    @KafkaListener(id = "itemsSoldConsumer",
+            topics = "${app.topics.items-sold}",
+            groupId = "${spring.kafka.consumer.group-id}",
+            concurrency = "${app.consumer.items-sold-concurrency:1}",
+            batch = "true")
     @Transactional
-    public void handle(ItemSoldEvent event) {
-        Optional<SaleEntity> existing = saleRepository.findById(event.saleId());
-        if (existing.isPresent()) {
-            return;
-        }
+    public void handle(List<ItemSoldEvent> events) {
+        saleRepository.insertIgnoringDuplicates(events.stream()
+                .map(ItemSoldConsumer::toSale)
+                .toList());
+    }
 
-        SaleEntity sale = SaleEntity.builder()
+    /** Truncates soldAt as well, for JSON events written with nanoseconds before {@link ItemSoldEvent#soldNow()}. */
+    static SaleEntity toSale(ItemSoldEvent event) {
+        return SaleEntity.builder()
                 .id(event.saleId())
                 .itemId(event.itemId())
                 .quantity(event.quantity())
-                .priceAtSale(event.priceAtSale())
-                .total(event.total())
-                .soldAt(event.soldAt())
+                .priceAtSaleCents(event.priceAtSaleCents())
+                .totalCents(event.totalCents())
+                .soldAt(event.soldAt().truncatedTo(ChronoUnit.MICROS))
                 .build();
-
-        saleRepository.save(sale);
     }
 }
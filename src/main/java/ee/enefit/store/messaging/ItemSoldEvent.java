@@ -1,14 +1,37 @@
 package ee.enefit.store.messaging;
 
-import java.math.BigDecimal;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import ee.enefit.store.dto.Money;
 import java.time.Instant;
+import java.time.temporal.ChronoUnit;
 import java.util.UUID;
 
+/**
+ * Amounts are in cents; in JSON (HTTP responses, the outbox and the JSON Kafka format) they keep their
+ * decimal {@code priceAtSale} / {@code total} fields, so existing outbox rows and records stay readable.
+ *
+ * <p>{@code soldAt} is part of the sales key and must survive every hop unchanged, so it is kept to the
+ * microseconds that the binary Kafka format and {@code timestamptz} hold; see {@link #soldNow()}.
+ */
 public record ItemSoldEvent(
         UUID saleId,
         UUID itemId,
         int quantity,
-        BigDecimal priceAtSale,
-        BigDecimal total,
+        @JsonProperty("priceAtSale")
+        @JsonSerialize(using = Money.Serializer.class)
+        @JsonDeserialize(using = Money.Deserializer.class)
+        long priceAtSaleCents,
+        @JsonProperty("total")
+        @JsonSerialize(using = Money.Serializer.class)
+        @JsonDeserialize(using = Money.Deserializer.class)
+        long totalCents,
         Instant soldAt
-) {}
+) {
+
+    /** The current time, truncated to microseconds. Use it for {@code soldAt} of new sales. */
+    public static Instant soldNow() {
+        return Instant.now().truncatedTo(ChronoUnit.MICROS);
+    }
+}
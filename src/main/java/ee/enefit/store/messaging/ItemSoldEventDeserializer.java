@@ -0,0 +1,52 @@
+package ee.enefit.store.messaging;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.util.UUID;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+
+import static ee.enefit.store.messaging.ItemSoldEventSerializer.V1_SIZE;
+import static ee.enefit.store.messaging.ItemSoldEventSerializer.VERSION_1;
+
+/**
+ * Reads both the binary format written by {@link ItemSoldEventSerializer} and the JSON written by
+ * Spring's {@code JsonSerializer}, so producers can be switched over while old records are still on the topic.
+ * JSON is recognised by its leading {@code '{'}.
+ */
+public class ItemSoldEventDeserializer implements Deserializer<ItemSoldEvent> {
+
+    private final JsonDeserializer<ItemSoldEvent> json = new JsonDeserializer<>(ItemSoldEvent.class, false);
+
+    @Override
+    public ItemSoldEvent deserialize(String topic, byte[] data) {
+        if (data == null) {
+            return null;
+        }
+        if (data.length > 0 && data[0] == '{') {
+            return json.deserialize(topic, data);
+        }
+        if (data.length != V1_SIZE || data[0] != VERSION_1) {
+            throw new SerializationException("Unsupported ItemSoldEvent encoding: version "
+                    + (data.length > 0 ? data[0] : "missing") + ", " + data.length + " bytes");
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(data, 1, V1_SIZE - 1);
+        return new ItemSoldEvent(
+                new UUID(buffer.getLong(), buffer.getLong()),
+                new UUID(buffer.getLong(), buffer.getLong()),
+                buffer.getInt(),
+                buffer.getLong(),
+                buffer.getLong(),
+                fromEpochMicros(buffer.getLong()));
+    }
+
+    @Override
+    public void close() {
+        json.close();
+    }
+
+    private static Instant fromEpochMicros(long micros) {
+        return Instant.ofEpochSecond(Math.floorDiv(micros, 1_000_000L), Math.floorMod(micros, 1_000_000L) * 1_000L);
+    }
+}
@@ -0,0 +1,51 @@
+package ee.enefit.store.messaging;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import org.apache.kafka.common.serialization.Serializer;
+
+/**
+ * Fixed-size binary encoding of {@link ItemSoldEvent}, big-endian:
+ *
+ * <pre>
+ * version   1 byte   {@link #VERSION_1}
+ * saleId   16 bytes  most/least significant bits
+ * itemId   16 bytes  most/least significant bits
+ * quantity  4 bytes
+ * price     8 bytes  cents
+ * total     8 bytes  cents
+ * soldAt    8 bytes  microseconds since the epoch
+ * </pre>
+ *
+ * The version byte can never be {@code '{'}, which is how {@link ItemSoldEventDeserializer} tells binary
+ * records from JSON ones. Enable with
+ * {@code spring.kafka.producer.value-serializer=ee.enefit.store.messaging.ItemSoldEventSerializer} once every
+ * consumer runs the dual-format deserializer.
+ */
+public class ItemSoldEventSerializer implements Serializer<ItemSoldEvent> {
+
+    static final byte VERSION_1 = 1;
+    static final int V1_SIZE = 1 + 16 + 16 + 4 + 8 + 8 + 8;
+
+    @Override
+    public byte[] serialize(String topic, ItemSoldEvent event) {
+        if (event == null) {
+            return null;
+        }
+        return ByteBuffer.allocate(V1_SIZE)
+                .put(VERSION_1)
+                .putLong(event.saleId().getMostSignificantBits())
+                .putLong(event.saleId().getLeastSignificantBits())
+                .putLong(event.itemId().getMostSignificantBits())
+                .putLong(event.itemId().getLeastSignificantBits())
+                .putInt(event.quantity())
+                .putLong(event.priceAtSaleCents())
+                .putLong(event.totalCents())
+                .putLong(toEpochMicros(event.soldAt()))
+                .array();
+    }
+
+    private static long toEpochMicros(Instant instant) {
+        return Math.addExact(Math.multiplyExact(instant.getEpochSecond(), 1_000_000L), instant.getNano() / 1_000);
+    }
+}
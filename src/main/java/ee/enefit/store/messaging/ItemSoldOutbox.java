@@ -0,0 +1,51 @@
+package ee.enefit.store.messaging;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import ee.enefit.store.entity.OutboxEntity;
+import ee.enefit.store.repository.OutboxRepository;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Writes {@link ItemSoldEvent}s to the outbox table in the caller's transaction.
+ * {@link OutboxRelay} publishes them to Kafka once that transaction has committed.
+ */
+@Component
+@RequiredArgsConstructor
+public class ItemSoldOutbox {
+
+    private final OutboxRepository outboxRepository;
+    private final ObjectMapper objectMapper;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueue(ItemSoldEvent event) {
+        outboxRepository.save(toRow(event));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueueAll(List<ItemSoldEvent> events) {
+        outboxRepository.saveAll(events.stream().map(this::toRow).toList());
+    }
+
+    ItemSoldEvent read(OutboxEntity row) {
+        try {
+            return objectMapper.readValue(row.getPayload(), ItemSoldEvent.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unreadable outbox row " + row.getId(), e);
+        }
+    }
+
+    private OutboxEntity toRow(ItemSoldEvent event) {
+        try {
+            return OutboxEntity.builder()
+                    .payload(objectMapper.writeValueAsString(event))
+                    .build();
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize ItemSoldEvent " + event.saleId(), e);
+        }
+    }
+}
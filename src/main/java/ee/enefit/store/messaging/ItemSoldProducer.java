@@ -2,7 +2,6 @@ package ee.enefit.store.messaging;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.kafka.clients.producer.RecordMetadata;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.support.SendResult;
@@ -19,17 +18,18 @@ public class ItemSoldProducer {
     @Value("${app.topics.items-sold}")
     private String topic;
 
-    public void publish(ItemSoldEvent event) {
+    /**
+     * Keyed by itemId so every sale of an item lands on the same partition and keeps its order.
+     * Successful sends are not logged; publish-to-ack latency is the {@code spring.kafka.template} timer.
+     */
+    public CompletableFuture<SendResult<String, ItemSoldEvent>> publish(ItemSoldEvent event) {
         String key = event.itemId().toString();
         CompletableFuture<SendResult<String, ItemSoldEvent>> future = kafkaTemplate.send(topic, key, event);
         future.whenComplete((res, ex) -> {
             if (ex != null) {
                 log.error("Failed to publish ItemSoldEvent with key={}: {}", key, ex.getMessage(), ex);
-            } else {
-                RecordMetadata m = res.getRecordMetadata();
-                log.info("Successfully published ItemSoldEvent to topic={}, partition={}, offset={}",
-                        m.topic(), m.partition(), m.offset());
             }
         });
+        return future;
     }
 }
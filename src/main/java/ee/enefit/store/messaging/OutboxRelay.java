@@ -0,0 +1,192 @@
+package ee.enefit.store.messaging;
+
+import ee.enefit.store.entity.OutboxEntity;
+import ee.enefit.store.repository.OutboxRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Drains the outbox in batches. The outbox table is the durable buffer between the sell path and Kafka:
+ * sells only insert rows, so they never wait on the broker, and events pile up there during an outage.
+ *
+ * <p>Delivery is at-least-once and unordered: relays on several nodes send disjoint batches at the same time,
+ * and ids come from a pooled sequence, so id order is not sell order either. The consumer drops duplicates by
+ * sale id. A batch is claimed for {@code app.outbox.claim-ms} in one short transaction; all its sends are in
+ * flight at once and are awaited with no transaction or connection held, and a second short transaction
+ * deletes the acknowledged rows and releases the claim on the rest. A relay that dies mid-batch leaves its
+ * claim to expire. After a failed batch the relay backs off exponentially instead of hammering an unreachable
+ * broker.
+ *
+ * <p>The relay runs on its own thread rather than the shared {@code @Scheduled} pool, so slow sends or a long
+ * backoff never delay the other scheduled jobs, and they never delay the relay. The same thread refreshes the
+ * {@code store.outbox.backlog} gauge every {@code app.outbox.backlog-refresh-ms}; metric scrapes only read the
+ * last count.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.outbox.relay-enabled", havingValue = "true", matchIfMissing = true)
+public class OutboxRelay implements DisposableBean {
+
+    private final OutboxRepository outboxRepository;
+    private final ItemSoldOutbox outbox;
+    private final ItemSoldProducer producer;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final ScheduledExecutorService worker = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("outbox-relay").daemon().factory());
+
+    @Value("${app.outbox.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.outbox.send-timeout-ms:10000}")
+    private long sendTimeoutMs;
+
+    @Value("${app.outbox.claim-ms:60000}")
+    private long claimMs;
+
+    @Value("${app.outbox.backoff-initial-ms:500}")
+    private long backoffInitialMs;
+
+    @Value("${app.outbox.backoff-max-ms:30000}")
+    private long backoffMaxMs;
+
+    @Value("${app.outbox.poll-interval-ms:200}")
+    private long pollIntervalMs;
+
+    @Value("${app.outbox.backlog-refresh-ms:10000}")
+    private long backlogRefreshMs;
+
+    private long backoffMs;
+    private long pausedUntilNanos;
+    private volatile long backlog;
+
+    @PostConstruct
+    void start() {
+        if (claimMs <= sendTimeoutMs) {
+            throw new IllegalStateException("app.outbox.claim-ms (" + claimMs + ") must exceed "
+                    + "app.outbox.send-timeout-ms (" + sendTimeoutMs + ")");
+        }
+        Gauge.builder("store.outbox.backlog", this, relay -> relay.backlog)
+                .description("Events written by sells and not yet acknowledged by Kafka")
+                .register(meterRegistry);
+        worker.scheduleWithFixedDelay(() -> runLogged(this::refreshBacklog), 0, backlogRefreshMs,
+                TimeUnit.MILLISECONDS);
+        worker.scheduleWithFixedDelay(() -> runLogged(this::relay), pollIntervalMs, pollIntervalMs,
+                TimeUnit.MILLISECONDS);
+    }
+
+    /** A task that throws would never run again, so failures are logged and the next run tries afresh. */
+    private static void runLogged(Runnable task) {
+        try {
+            task.run();
+        } catch (RuntimeException e) {
+            log.error("Outbox relay task failed", e);
+        }
+    }
+
+    void refreshBacklog() {
+        backlog = outboxRepository.count();
+    }
+
+    public void relay() {
+        if (backoffMs > 0 && System.nanoTime() - pausedUntilNanos < 0) {
+            return;
+        }
+        RelayResult result;
+        do {
+            result = relayBatch();
+        } while (result.complete() && result.relayed() == batchSize);
+
+        if (!result.complete()) {
+            backoffMs = backoffMs == 0 ? backoffInitialMs : Math.min(backoffMs * 2, backoffMaxMs);
+            pausedUntilNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(backoffMs);
+            log.warn("Outbox relay stalled after {} of {} rows, retrying in {} ms",
+                    result.relayed(), result.claimed(), backoffMs);
+        } else {
+            backoffMs = 0;
+        }
+    }
+
+    RelayResult relayBatch() {
+        List<OutboxEntity> batch = transactionTemplate.execute(status ->
+                outboxRepository.claimNextBatch(batchSize, claimMs));
+        if (batch == null || batch.isEmpty()) {
+            return new RelayResult(0, 0);
+        }
+
+        List<CompletableFuture<?>> sends = new ArrayList<>(batch.size());
+        for (OutboxEntity row : batch) {
+            try {
+                sends.add(producer.publish(outbox.read(row)));
+            } catch (RuntimeException e) {
+                // e.g. metadata unavailable: the rest of the batch would fail the same way, so stop sending
+                log.warn("Outbox row {} could not be sent, will retry: {}", row.getId(), e.toString());
+                break;
+            }
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(sendTimeoutMs);
+        List<Long> acked = new ArrayList<>(sends.size());
+        List<Long> unacked = new ArrayList<>();
+        Exception firstFailure = null;
+        for (int i = 0; i < batch.size(); i++) {
+            Long id = batch.get(i).getId();
+            if (i >= sends.size() || Thread.currentThread().isInterrupted()) {
+                unacked.add(id);
+                continue;
+            }
+            try {
+                sends.get(i).get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                acked.add(id);
+            } catch (ExecutionException | TimeoutException e) {
+                firstFailure = firstFailure == null ? e : firstFailure;
+                unacked.add(id);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                unacked.add(id);
+            }
+        }
+        if (firstFailure != null) {
+            log.warn("{} outbox rows not acknowledged, will retry: {}", unacked.size(), firstFailure.toString());
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!acked.isEmpty()) {
+                outboxRepository.deleteAllByIdInBatch(acked);
+            }
+            if (!unacked.isEmpty()) {
+                outboxRepository.releaseClaims(unacked);
+            }
+        });
+        return new RelayResult(batch.size(), acked.size());
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        worker.shutdown();
+        worker.awaitTermination(sendTimeoutMs, TimeUnit.MILLISECONDS);
+    }
+
+    record RelayResult(int claimed, int relayed) {
+        boolean complete() {
+            return relayed == claimed;
+        }
+    }
+}
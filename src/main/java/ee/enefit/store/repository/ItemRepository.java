@@ -2,8 +2,10 @@ package ee.enefit.store.repository;
 
 import ee.enefit.store.dto.StockLevelViewDto;
 import ee.enefit.store.entity.ItemEntity;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -11,20 +13,148 @@ import java.util.Optional;
 import java.util.UUID;
 
 @Repository
-public interface ItemRepository extends JpaRepository<ItemEntity, UUID> {
-    Optional<ItemEntity> findByNameIgnoreCase(String name);
-    boolean existsByNameIgnoreCase(String name);
-    List<ItemEntity> findByNameContainingIgnoreCase(String namePart);
+public interface ItemRepository extends JpaRepository<ItemEntity, UUID>, ItemRepositoryCustom {
+
+    /**
+     * {@link #findById} without its read-only transaction. Declared query methods get no transaction from
+     * {@code SimpleJpaRepository}, unlike {@link #findById}, which runs read-only and would be routed to a read
+     * replica. Outside a caller's transaction this reads the primary.
+     */
+    @Query("select i from ItemEntity i where i.id = :id")
+    Optional<ItemEntity> findOnPrimaryById(@Param("id") UUID id);
+
+    /**
+     * Inserts the item in one statement unless its name is already taken, ignoring case ({@code uk_items_name}).
+     * Empty result means the name is taken.
+     */
+    @Query(value = """
+           insert into items (id, name, price_cents, quantity, version, created_at, updated_at)
+           values (:id, :name, :priceCents, :quantity, 1, now(), now())
+           on conflict (lower(name)) do nothing
+           returning *
+           """, nativeQuery = true)
+    Optional<ItemEntity> insertIfNameFree(@Param("id") UUID id,
+                                          @Param("name") String name,
+                                          @Param("priceCents") Long priceCents,
+                                          @Param("quantity") int quantity);
+
+    @Query(value = """
+           select *
+           from items
+           order by name, id
+           limit :limit
+           """, nativeQuery = true)
+    List<ItemEntity> findPage(@Param("limit") int limit);
+
+    @Query(value = """
+           select *
+           from items
+           where (name, id) > (:afterName, :afterId)
+           order by name, id
+           limit :limit
+           """, nativeQuery = true)
+    List<ItemEntity> findPageAfter(@Param("afterName") String afterName,
+                                   @Param("afterId") UUID afterId,
+                                   @Param("limit") int limit);
+
+    /** {@code pattern} is an ILIKE pattern with wildcards already applied and user input escaped. */
+    @Query(value = """
+           select *
+           from items
+           where name ilike :pattern
+           order by name, id
+           limit :limit
+           """, nativeQuery = true)
+    List<ItemEntity> searchPage(@Param("pattern") String pattern, @Param("limit") int limit);
+
+    @Query(value = """
+           select *
+           from items
+           where name ilike :pattern
+             and (name, id) > (:afterName, :afterId)
+           order by name, id
+           limit :limit
+           """, nativeQuery = true)
+    List<ItemEntity> searchPageAfter(@Param("pattern") String pattern,
+                                     @Param("afterName") String afterName,
+                                     @Param("afterId") UUID afterId,
+                                     @Param("limit") int limit);
+
+    /**
+     * Substring matches ranked by trigram similarity to {@code query}; both predicates are served by
+     * {@code idx_items_name_trgm}.
+     */
+    @Query(value = """
+           select *
+           from items
+           where name ilike :pattern
+           order by similarity(name, :query) desc, name, id
+           limit :limit
+           """, nativeQuery = true)
+    List<ItemEntity> searchBySimilarity(@Param("pattern") String pattern,
+                                        @Param("query") String query,
+                                        @Param("limit") int limit);
 
     @Query("""
            select
              i.id   as id,
              i.name as name,
-             i.price as price,
+             i.priceCents as priceCents,
              i.quantity as stockQuantity,
              i.updatedAt as lastUpdated
            from ItemEntity i
            order by i.name
            """)
     List<StockLevelViewDto> findCurrentStockLevels();
+
+    /** First keyset page of the stock report; names are unique, so the name alone is the cursor. */
+    @Query("""
+           select
+             i.id   as id,
+             i.name as name,
+             i.priceCents as priceCents,
+             i.quantity as stockQuantity,
+             i.updatedAt as lastUpdated
+           from ItemEntity i
+           order by i.name
+           """)
+    List<StockLevelViewDto> findStockLevelsFirstPage(Pageable page);
+
+    /** Next keyset page of the stock report, starting after the last name of the previous page. */
+    @Query("""
+           select
+             i.id   as id,
+             i.name as name,
+             i.priceCents as priceCents,
+             i.quantity as stockQuantity,
+             i.updatedAt as lastUpdated
+           from ItemEntity i
+           where i.name > :afterName
+           order by i.name
+           """)
+    List<StockLevelViewDto> findStockLevelsAfter(@Param("afterName") String afterName, Pageable page);
+
+    /**
+     * Decrements stock in a single statement, only if enough is available.
+     * Bumps the version so concurrent entity-based updates still see the change.
+     * Empty result means the item is either unknown or out of stock.
+     */
+    @Query(value = """
+           update items
+              set quantity   = quantity - :quantity,
+                  version    = version + 1,
+                  updated_at = now()
+            where id = :id
+              and quantity >= :quantity
+           returning price_cents as "priceCents", quantity
+           """, nativeQuery = true)
+    Optional<StockDecrement> decrementStock(@Param("id") UUID id, @Param("quantity") int quantity);
+
+    @Query("select i.quantity from ItemEntity i where i.id = :id")
+    Optional<Integer> findQuantityById(@Param("id") UUID id);
+
+    interface StockDecrement {
+        long getPriceCents();
+        int getQuantity();
+    }
 }
@@ -0,0 +1,57 @@
+package ee.enefit.store.repository;
+
+import ee.enefit.store.entity.ItemEntity;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface ItemRepositoryCustom {
+
+    /**
+     * Locks all requested rows in id order and decrements every line that has enough stock, in one statement.
+     * Lines that are unknown or short on stock are missing from the result.
+     */
+    List<DecrementedLine> decrementStockBatch(Map<UUID, Integer> quantitiesByItem);
+
+    /**
+     * Applies the non-null fields in one {@code UPDATE ... RETURNING}, without loading the row first.
+     * When {@code expectedVersion} is given the row is only updated if its version still matches.
+     * Empty result means the item is unknown or, with an expected version, was changed meanwhile.
+     * The returned entity is a detached snapshot of the updated row.
+     */
+    Optional<ItemEntity> updateFields(UUID id, String name, Long priceCents, Integer quantity,
+                                      Integer expectedVersion);
+
+    record DecrementedLine(UUID itemId, long priceCents, int remaining) {}
+
+    /**
+     * Streams the rows produced by {@code rows} into a transaction-local staging table with {@code COPY}, then
+     * inserts them into {@code items} in one statement. Rows whose name is taken, ignoring case, by an existing
+     * item or by an earlier line of the same import are skipped and reported as conflicts.
+     * Must run inside a transaction.
+     *
+     * @param maxConflicts how many conflicting rows to return; all of them are counted
+     */
+    ImportOutcome copyImport(ImportRows rows, int maxConflicts);
+
+    @FunctionalInterface
+    interface ImportRows {
+        void writeTo(ImportSink sink) throws IOException;
+    }
+
+    @FunctionalInterface
+    interface ImportSink {
+        void add(long line, UUID id, String name, long priceCents, int quantity) throws IOException;
+    }
+
+    record ImportOutcome(long staged, long inserted, List<ImportConflict> conflicts) {
+        public long conflicting() {
+            return staged - inserted;
+        }
+    }
+
+    record ImportConflict(long line, String name) {}
+}
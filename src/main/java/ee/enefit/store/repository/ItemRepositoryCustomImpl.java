@@ -0,0 +1,175 @@
+package ee.enefit.store.repository;
+
+import ee.enefit.store.entity.ItemEntity;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import lombok.RequiredArgsConstructor;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.PGCopyOutputStream;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+@RequiredArgsConstructor
+class ItemRepositoryCustomImpl implements ItemRepositoryCustom {
+
+    private static final String DECREMENT_BATCH = """
+            with requested as (
+                select r.id, r.quantity
+                from unnest(?::uuid[], ?::int[]) as r(id, quantity)
+            ),
+            locked as (
+                select i.id
+                from items i
+                join requested r on r.id = i.id
+                order by i.id
+                for update of i
+            )
+            update items i
+               set quantity   = i.quantity - r.quantity,
+                   version    = i.version + 1,
+                   updated_at = now()
+              from requested r
+             where i.id = r.id
+               and i.id in (select id from locked)
+               and i.quantity >= r.quantity
+            returning i.id, i.price_cents, i.quantity
+            """;
+
+    private static final String UPDATE_FIELDS = """
+            update items
+               set name        = coalesce(?, name),
+                   price_cents = coalesce(?, price_cents),
+                   quantity    = coalesce(?, quantity),
+                   version     = version + 1,
+                   updated_at  = now()
+             where id = ?
+            """;
+
+    private static final String RETURNING_ITEM = """
+            returning id, name, price_cents, quantity, version, created_at, updated_at
+            """;
+
+    private static final String CREATE_IMPORT_STAGING = """
+            create temp table item_import (
+                line        bigint not null,
+                id          uuid   not null,
+                name        text   not null,
+                price_cents bigint not null,
+                quantity    int    not null
+            ) on commit drop
+            """;
+
+    private static final String COPY_IMPORT_STAGING = """
+            copy item_import (line, id, name, price_cents, quantity) from stdin (format csv)
+            """;
+
+    private static final String MERGE_IMPORT = """
+            insert into items (id, name, price_cents, quantity, version, created_at, updated_at)
+            select id, name, price_cents, quantity, 1, now(), now()
+            from item_import
+            order by line
+            on conflict (lower(name)) do nothing
+            """;
+
+    private static final String IMPORT_CONFLICTS = """
+            select s.line, s.name
+            from item_import s
+            where not exists (select 1 from items i where i.id = s.id)
+            order by s.line
+            limit ?
+            """;
+
+    private static final int COPY_BUFFER_BYTES = 1 << 16;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public List<DecrementedLine> decrementStockBatch(Map<UUID, Integer> quantitiesByItem) {
+        String[] ids = quantitiesByItem.keySet().stream().map(UUID::toString).toArray(String[]::new);
+        Integer[] quantities = quantitiesByItem.values().toArray(Integer[]::new);
+        return jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(DECREMENT_BATCH);
+            ps.setArray(1, con.createArrayOf("uuid", ids));
+            ps.setArray(2, con.createArrayOf("int4", quantities));
+            return ps;
+        }, (rs, rowNum) -> new DecrementedLine(
+                rs.getObject("id", UUID.class),
+                rs.getLong("price_cents"),
+                rs.getInt("quantity")));
+    }
+
+    @Override
+    public Optional<ItemEntity> updateFields(UUID id, String name, Long priceCents, Integer quantity,
+                                             Integer expectedVersion) {
+        String sql = UPDATE_FIELDS + (expectedVersion != null ? "   and version = ?\n" : "") + RETURNING_ITEM;
+        List<ItemEntity> updated = jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(sql);
+            ps.setObject(1, name, Types.VARCHAR);
+            ps.setObject(2, priceCents, Types.BIGINT);
+            ps.setObject(3, quantity, Types.INTEGER);
+            ps.setObject(4, id);
+            if (expectedVersion != null) {
+                ps.setInt(5, expectedVersion);
+            }
+            return ps;
+        }, (rs, rowNum) -> ItemEntity.builder()
+                .id(rs.getObject("id", UUID.class))
+                .name(rs.getString("name"))
+                .priceCents(rs.getLong("price_cents"))
+                .quantity(rs.getInt("quantity"))
+                .version(rs.getInt("version"))
+                .createdAt(rs.getTimestamp("created_at").toInstant())
+                .updatedAt(rs.getTimestamp("updated_at").toInstant())
+                .build());
+        return updated.stream().findFirst();
+    }
+
+    @Override
+    public ImportOutcome copyImport(ImportRows rows, int maxConflicts) {
+        jdbcTemplate.execute(CREATE_IMPORT_STAGING);
+        Long staged = jdbcTemplate.execute(
+                (ConnectionCallback<Long>) con -> copyIn(con.unwrap(PGConnection.class), rows));
+        int inserted = jdbcTemplate.update(MERGE_IMPORT);
+        List<ImportConflict> conflicts = maxConflicts <= 0 ? List.of() : jdbcTemplate.query(IMPORT_CONFLICTS,
+                (rs, rowNum) -> new ImportConflict(rs.getLong("line"), rs.getString("name")), maxConflicts);
+        return new ImportOutcome(staged == null ? 0 : staged, inserted, conflicts);
+    }
+
+    private static long copyIn(PGConnection con, ImportRows rows) throws SQLException {
+        PGCopyOutputStream copy = new PGCopyOutputStream(con, COPY_IMPORT_STAGING, COPY_BUFFER_BYTES);
+        try {
+            Writer out = new BufferedWriter(new OutputStreamWriter(copy, StandardCharsets.UTF_8), COPY_BUFFER_BYTES);
+            rows.writeTo((line, id, name, priceCents, quantity) -> {
+                out.write(Long.toString(line));
+                out.write(',');
+                out.write(id.toString());
+                out.write(",\"");
+                out.write(name.replace("\"", "\"\""));
+                out.write("\",");
+                out.write(Long.toString(priceCents));
+                out.write(',');
+                out.write(Integer.toString(quantity));
+                out.write('\n');
+            });
+            out.flush();
+            return copy.endCopy();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            if (copy.isActive()) {
+                copy.cancelCopy();
+            }
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package ee.enefit.store.repository;
+
+import ee.enefit.store.entity.OutboxEntity;
+import java.util.Collection;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface OutboxRepository extends JpaRepository<OutboxEntity, Long> {
+
+    /**
+     * Claims the oldest rows that no relay holds a live claim on, for {@code claimMs} from now. Rows another relay
+     * is claiming at the same moment are skipped, not waited for. The row locks end with the caller's transaction;
+     * the claim keeps other relays off the rows while they are sent.
+     */
+    @Query(value = """
+           update outbox
+              set claimed_until = now() + :claimMs * interval '1 millisecond'
+            where id in (select id
+                         from outbox
+                         where claimed_until is null or claimed_until < now()
+                         order by id
+                         limit :limit
+                         for update skip locked)
+           returning *
+           """, nativeQuery = true)
+    List<OutboxEntity> claimNextBatch(@Param("limit") int limit, @Param("claimMs") long claimMs);
+
+    /** Makes rows claimable again right away, e.g. after their send failed. */
+    @Modifying
+    @Query(value = "update outbox set claimed_until = null where id in (:ids)", nativeQuery = true)
+    int releaseClaims(@Param("ids") Collection<Long> ids);
+}
@@ -12,22 +12,23 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
-public interface SaleRepository extends JpaRepository<SaleEntity, UUID> {
+public interface SaleRepository extends JpaRepository<SaleEntity, UUID>, SaleRepositoryCustom {
 
+    /** Aggregates raw sales sold in [from, to); used for the partial hours at the edges of a report range. */
     @Query("""
            select
-             i.id            as itemId,
-             i.name          as name,
-             sum(s.quantity) as unitsSold,
-             sum(s.total)    as revenue,
-             max(s.soldAt)   as lastSoldAt
+             i.id              as itemId,
+             i.name            as name,
+             sum(s.quantity)   as unitsSold,
+             sum(s.totalCents) as revenueCents,
+             max(s.soldAt)     as lastSoldAt
            from SaleEntity s, ItemEntity i
            where s.itemId = i.id
-             and s.soldAt between :from and :to
+             and s.soldAt >= :from
+             and s.soldAt < :to
            group by i.id, i.name
-           order by sum(s.quantity) desc
            """)
-    List<SoldItemAggregateDto> findSoldItemsSummary(
+    List<SoldItemAggregateDto> summarizeRawSales(
             @Param("from") Instant from,
             @Param("to")   Instant to
     );
@@ -0,0 +1,42 @@
+package ee.enefit.store.repository;
+
+import ee.enefit.store.dto.SaleExportRow;
+import ee.enefit.store.entity.SaleEntity;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.List;
+
+public interface SaleRepositoryCustom {
+
+    /**
+     * Inserts all sales with one multi-row statement; sales whose (id, soldAt) already exists are skipped,
+     * which keeps redelivered events idempotent since a redelivery carries the same soldAt. Only the rows actually inserted are added to
+     * their hourly {@code sales_rollup} bucket, in the same statement.
+     * Sales of items that no longer exist are skipped too, as the delete already cascaded their history away;
+     * the item rows are key-share locked so a concurrent delete cannot fail the foreign key check.
+     */
+    void insertIgnoringDuplicates(List<SaleEntity> sales);
+
+    /**
+     * Makes sure monthly {@code sales} partitions exist from the current month up to {@code monthsAhead} months ahead.
+     *
+     * @return number of partitions created
+     */
+    int createMonthlyPartitions(int monthsAhead);
+
+    /**
+     * Hands every sale sold in [from, to) to {@code sink}, in sold_at order, joined with the item name.
+     * Rows are read through a server-side cursor {@code fetchSize} rows at a time, so at most one fetch is held
+     * in memory however large the range. Must run inside a transaction: outside one the driver ignores the fetch
+     * size and reads the whole result.
+     *
+     * @return number of rows handed to the sink
+     * @throws IOException as thrown by the sink; the cursor is closed and no further rows are read
+     */
+    long exportSales(Instant from, Instant to, int fetchSize, ExportSink sink) throws IOException;
+
+    @FunctionalInterface
+    interface ExportSink {
+        void accept(SaleExportRow row) throws IOException;
+    }
+}
@@ -0,0 +1,122 @@
+package ee.enefit.store.repository;
+
+import ee.enefit.store.dto.SaleExportRow;
+import ee.enefit.store.entity.SaleEntity;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+@RequiredArgsConstructor
+class SaleRepositoryCustomImpl implements SaleRepositoryCustom {
+
+    private static final String INSERT_AND_ROLL_UP = """
+            with incoming as (
+                select e.*
+                from unnest(?::text[]::uuid[], ?::text[]::uuid[], ?::text[]::int[],
+                            ?::text[]::bigint[], ?::text[]::bigint[], ?::text[]::timestamptz[])
+                     as e(id, item_id, quantity, price_at_sale_cents, total_cents, sold_at)
+                join items i on i.id = e.item_id
+                for key share of i
+            ),
+            inserted as (
+                insert into sales (id, item_id, quantity, price_at_sale_cents, total_cents, sold_at)
+                select id, item_id, quantity, price_at_sale_cents, total_cents, sold_at
+                from incoming
+                on conflict (id, sold_at) do nothing
+                returning item_id, quantity, total_cents, sold_at
+            )
+            insert into sales_rollup (item_id, bucket_start, units, revenue_cents, last_sold_at)
+            select item_id,
+                   date_bin('1 hour', sold_at, timestamptz '2000-01-01 00:00:00+00'),
+                   sum(quantity),
+                   sum(total_cents),
+                   max(sold_at)
+            from inserted
+            group by 1, 2
+            on conflict (item_id, bucket_start) do update
+               set units         = sales_rollup.units + excluded.units,
+                   revenue_cents = sales_rollup.revenue_cents + excluded.revenue_cents,
+                   last_sold_at  = greatest(sales_rollup.last_sold_at, excluded.last_sold_at)
+            """;
+
+    private static final String CREATE_PARTITIONS = """
+            select create_sales_partitions(now(), now() + make_interval(months => ?))
+            """;
+
+    private static final String EXPORT_SALES = """
+            select s.id, s.sold_at, s.item_id, i.name, s.quantity, s.price_at_sale_cents, s.total_cents
+            from sales s
+            join items i on i.id = s.item_id
+            where s.sold_at >= ? and s.sold_at < ?
+            order by s.sold_at, s.id
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void insertIgnoringDuplicates(List<SaleEntity> sales) {
+        if (sales.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.update(con -> {
+            PreparedStatement ps = con.prepareStatement(INSERT_AND_ROLL_UP);
+            ps.setArray(1, con.createArrayOf("text", column(sales, SaleEntity::getId)));
+            ps.setArray(2, con.createArrayOf("text", column(sales, SaleEntity::getItemId)));
+            ps.setArray(3, con.createArrayOf("text", column(sales, SaleEntity::getQuantity)));
+            ps.setArray(4, con.createArrayOf("text", column(sales, SaleEntity::getPriceAtSaleCents)));
+            ps.setArray(5, con.createArrayOf("text", column(sales, SaleEntity::getTotalCents)));
+            ps.setArray(6, con.createArrayOf("text", column(sales, SaleEntity::getSoldAt)));
+            return ps;
+        });
+    }
+
+    @Override
+    public int createMonthlyPartitions(int monthsAhead) {
+        Integer created = jdbcTemplate.queryForObject(CREATE_PARTITIONS, Integer.class, monthsAhead);
+        return created == null ? 0 : created;
+    }
+
+    @Override
+    public long exportSales(Instant from, Instant to, int fetchSize, ExportSink sink) throws IOException {
+        long[] exported = {0};
+        try {
+            jdbcTemplate.query(con -> {
+                PreparedStatement ps = con.prepareStatement(EXPORT_SALES,
+                        ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                ps.setFetchSize(fetchSize);
+                ps.setObject(1, from.atOffset(ZoneOffset.UTC));
+                ps.setObject(2, to.atOffset(ZoneOffset.UTC));
+                return ps;
+            }, rs -> {
+                try {
+                    sink.accept(new SaleExportRow(
+                            rs.getObject("id", UUID.class),
+                            rs.getTimestamp("sold_at").toInstant(),
+                            rs.getObject("item_id", UUID.class),
+                            rs.getString("name"),
+                            rs.getInt("quantity"),
+                            rs.getLong("price_at_sale_cents"),
+                            rs.getLong("total_cents")));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                exported[0]++;
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return exported[0];
+    }
+
+    private static String[] column(List<SaleEntity> sales, Function<SaleEntity, Object> field) {
+        return sales.stream().map(field).map(String::valueOf).toArray(String[]::new);
+    }
+}
@@ -0,0 +1,33 @@
+package ee.enefit.store.repository;
+
+import ee.enefit.store.dto.SoldItemAggregateDto;
+import ee.enefit.store.entity.SalesRollupEntity;
+import java.time.Instant;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface SalesRollupRepository extends JpaRepository<SalesRollupEntity, SalesRollupEntity.Key> {
+
+    /** Sums whole hour buckets starting in [from, to). */
+    @Query("""
+           select
+             i.id                as itemId,
+             i.name              as name,
+             sum(r.units)        as unitsSold,
+             sum(r.revenueCents) as revenueCents,
+             max(r.lastSoldAt)   as lastSoldAt
+           from SalesRollupEntity r, ItemEntity i
+           where r.itemId = i.id
+             and r.bucketStart >= :from
+             and r.bucketStart < :to
+           group by i.id, i.name
+           """)
+    List<SoldItemAggregateDto> summarizeBuckets(
+            @Param("from") Instant from,
+            @Param("to")   Instant to
+    );
+}
@@ -0,0 +1,120 @@
+package ee.enefit.store.service;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import ee.enefit.store.dto.ItemResponse;
+import ee.enefit.store.messaging.ItemInvalidationPublisher;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+/**
+ * Read-through cache of items by id.
+ *
+ * <p>Writers call {@link #invalidate} inside their transaction: the local entry is dropped after commit and the
+ * id is broadcast so other nodes drop theirs. Entries also expire {@code app.cache.items.ttl-ms} after being
+ * loaded, which bounds staleness if a broadcast is lost.
+ *
+ * <p>The caller runs the load itself, outside any cache lock: the entry only holds a future while the load is
+ * in flight. Loading inside Caffeine's compute would pin a virtual thread to its carrier while it waits for a
+ * pooled connection. An invalidation that lands during the load removes the future, so the loaded value is
+ * returned to the caller but never cached.
+ */
+@Component
+@RequiredArgsConstructor
+public class ItemCache {
+
+    /** Rough heap cost of an entry apart from the name characters. */
+    private static final int ENTRY_OVERHEAD_BYTES = 160;
+
+    private final MeterRegistry meterRegistry;
+    private final ObjectProvider<ItemInvalidationPublisher> publisher;
+
+    @Value("${app.cache.items.max-weight-bytes:33554432}")
+    private long maxWeightBytes;
+
+    @Value("${app.cache.items.ttl-ms:30000}")
+    private long ttlMs;
+
+    private AsyncCache<UUID, ItemResponse> byId;
+
+    @PostConstruct
+    void init() {
+        byId = Caffeine.newBuilder()
+                .maximumWeight(maxWeightBytes)
+                .weigher((UUID id, ItemResponse item) -> ENTRY_OVERHEAD_BYTES + 2 * item.getName().length())
+                .expireAfterWrite(Duration.ofMillis(ttlMs))
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, byId.synchronous(), "items.byId");
+    }
+
+    /** Absent items are not cached; a load that fails fails every caller waiting for it. */
+    public Optional<ItemResponse> get(UUID id, Function<UUID, Optional<ItemResponse>> loader) {
+        CompletableFuture<ItemResponse> load = new CompletableFuture<>();
+        CompletableFuture<ItemResponse> entry = byId.get(id, (key, executor) -> load);
+        if (entry == load) {
+            try {
+                load.complete(loader.apply(id).orElse(null));
+            } catch (RuntimeException | Error e) {
+                load.completeExceptionally(e);
+                throw e;
+            }
+        }
+        try {
+            return Optional.ofNullable(entry.join());
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    public void invalidate(UUID id) {
+        invalidateAll(List.of(id));
+    }
+
+    /** Evicts locally and on every other node once the surrounding transaction (if any) has committed. */
+    public void invalidateAll(Collection<UUID> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        List<UUID> copy = List.copyOf(ids);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evictAndBroadcast(copy);
+                }
+            });
+        } else {
+            evictAndBroadcast(copy);
+        }
+    }
+
+    /** Applies an invalidation received from another node. */
+    public void evictLocal(UUID id) {
+        byId.synchronous().invalidate(id);
+    }
+
+    private void evictAndBroadcast(List<UUID> ids) {
+        byId.synchronous().invalidateAll(ids);
+        publisher.ifAvailable(p -> p.publish(ids));
+    }
+}
@@ -0,0 +1,236 @@
+package ee.enefit.store.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import ee.enefit.store.dto.ItemImportResult;
+import ee.enefit.store.dto.ItemImportResult.Problem;
+import ee.enefit.store.dto.ItemRequest;
+import ee.enefit.store.dto.Money;
+import ee.enefit.store.entity.UuidV7;
+import ee.enefit.store.repository.ItemRepository;
+import ee.enefit.store.repository.ItemRepositoryCustom.ImportOutcome;
+import ee.enefit.store.repository.ItemRepositoryCustom.ImportSink;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Bulk item import. The body is read line by line, validated and streamed straight into {@code COPY}, so memory
+ * use does not depend on the size of the upload; only the first {@code app.import.max-reported-problems}
+ * problems are kept. All rows are inserted in one transaction: a failure of the upload itself imports nothing.
+ *
+ * <p>CSV needs a header naming the {@code name}, {@code price} and {@code quantity} columns, in any order.
+ * Fields may be quoted, with {@code ""} for a literal quote, but cannot span lines.
+ * NDJSON rows are {@link ItemRequest} objects, one per line.
+ */
+@Slf4j
+@Service
+public class ItemImportService {
+
+    public enum Format { CSV, NDJSON }
+
+    private final ItemRepository itemRepository;
+    private final ObjectReader itemReader;
+
+    @Value("${app.import.max-reported-problems:100}")
+    private int maxReportedProblems;
+
+    public ItemImportService(ItemRepository itemRepository, ObjectMapper objectMapper) {
+        this.itemRepository = itemRepository;
+        this.itemReader = objectMapper.readerFor(ItemRequest.class);
+    }
+
+    /**
+     * @throws IllegalArgumentException if the upload cannot be read at all (e.g. a CSV header without the
+     *                                  required columns); individual bad rows are reported, not thrown
+     */
+    @Transactional
+    public ItemImportResult importItems(InputStream body, Format format) {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8), 1 << 16);
+        Tally tally = new Tally(maxReportedProblems);
+        long began = System.nanoTime();
+
+        ImportOutcome outcome = itemRepository.copyImport(sink -> {
+            if (format == Format.CSV) {
+                readCsv(reader, sink, tally);
+            } else {
+                readNdjson(reader, sink, tally);
+            }
+        }, maxReportedProblems);
+
+        outcome.conflicts().forEach(c -> tally.report(c.line(), "Name already exists: " + c.name()));
+        tally.problems.sort(Comparator.comparingLong(Problem::line));
+        log.info("Imported {} of {} items in {} ms ({} invalid, {} conflicts)", outcome.inserted(), tally.received,
+                (System.nanoTime() - began) / 1_000_000, tally.invalid, outcome.conflicting());
+        return new ItemImportResult(tally.received, outcome.inserted(), tally.invalid, outcome.conflicting(),
+                List.copyOf(tally.problems));
+    }
+
+    private static void readCsv(BufferedReader reader, ImportSink sink, Tally tally) throws IOException {
+        String header = reader.readLine();
+        if (header == null) {
+            return;
+        }
+        List<String> columns = parseCsvLine(header.startsWith("\uFEFF") ? header.substring(1) : header);
+        int nameAt = columnIndex(columns, "name");
+        int priceAt = columnIndex(columns, "price");
+        int quantityAt = columnIndex(columns, "quantity");
+
+        long line = 1;
+        String text;
+        while ((text = reader.readLine()) != null) {
+            line++;
+            if (text.isBlank()) {
+                continue;
+            }
+            tally.received++;
+            List<String> fields = parseCsvLine(text);
+            if (fields == null || fields.size() != columns.size()) {
+                tally.reject(line, "Expected " + columns.size() + " fields");
+                continue;
+            }
+            Long priceCents;
+            int quantity;
+            try {
+                priceCents = Money.toMinorUnits(new BigDecimal(fields.get(priceAt).trim()));
+            } catch (NumberFormatException | ArithmeticException e) {
+                tally.reject(line, "Invalid price: " + fields.get(priceAt));
+                continue;
+            }
+            try {
+                quantity = Integer.parseInt(fields.get(quantityAt).trim());
+            } catch (NumberFormatException e) {
+                tally.reject(line, "Invalid quantity: " + fields.get(quantityAt));
+                continue;
+            }
+            accept(sink, tally, line, fields.get(nameAt), priceCents, quantity);
+        }
+    }
+
+    private void readNdjson(BufferedReader reader, ImportSink sink, Tally tally) throws IOException {
+        long line = 0;
+        String text;
+        while ((text = reader.readLine()) != null) {
+            line++;
+            if (text.isBlank()) {
+                continue;
+            }
+            tally.received++;
+            ItemRequest item;
+            try {
+                item = itemReader.readValue(text);
+            } catch (JsonProcessingException e) {
+                tally.reject(line, "Invalid JSON: " + e.getOriginalMessage());
+                continue;
+            }
+            accept(sink, tally, line, item.getName(), item.getPriceCents(), item.getQuantity());
+        }
+    }
+
+    private static void accept(ImportSink sink, Tally tally, long line, String name, Long priceCents, int quantity)
+            throws IOException {
+        String problem = validate(name, priceCents, quantity);
+        if (problem != null) {
+            tally.reject(line, problem);
+            return;
+        }
+        sink.add(line, UuidV7.next(), name, priceCents, quantity);
+    }
+
+    /** Same rules as the constraints on {@link ItemRequest}; {@code null} if the row is valid. */
+    static String validate(String name, Long priceCents, int quantity) {
+        if (name == null || name.isBlank()) {
+            return "Name is required";
+        }
+        if (name.length() > ItemRequest.MAX_NAME_LENGTH) {
+            return "Name must be between 1 and " + ItemRequest.MAX_NAME_LENGTH + " characters";
+        }
+        if (name.indexOf('\0') >= 0) {
+            return "Name contains a NUL character";
+        }
+        if (priceCents == null || priceCents <= 0) {
+            return "Price must be greater than 0";
+        }
+        if (quantity < 0) {
+            return "Quantity must be zero or positive";
+        }
+        return null;
+    }
+
+    private static int columnIndex(List<String> header, String column) {
+        if (header != null) {
+            for (int i = 0; i < header.size(); i++) {
+                if (header.get(i).trim().equalsIgnoreCase(column)) {
+                    return i;
+                }
+            }
+        }
+        throw new IllegalArgumentException("CSV header must name the columns name, price and quantity");
+    }
+
+    /** Splits one CSV record; {@code null} if a quoted field is not closed on the same line. */
+    static List<String> parseCsvLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c != '"') {
+                    field.append(c);
+                } else if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            return null;
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private static final class Tally {
+        private final int maxProblems;
+        private final List<Problem> problems = new ArrayList<>();
+        private long received;
+        private long invalid;
+
+        private Tally(int maxProblems) {
+            this.maxProblems = maxProblems;
+        }
+
+        private void reject(long line, String reason) {
+            invalid++;
+            report(line, reason);
+        }
+
+        private void report(long line, String reason) {
+            if (problems.size() < maxProblems) {
+                problems.add(new Problem(line, reason));
+            }
+        }
+    }
+}
@@ -1,19 +1,21 @@
 package ee.enefit.store.service;
 
-import java.math.BigDecimal;
-import java.time.Instant;
-import java.time.OffsetDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
+import ee.enefit.store.dto.ItemCursor;
+import ee.enefit.store.dto.ItemPage;
 import ee.enefit.store.dto.ItemRequest;
 import ee.enefit.store.dto.ItemUpdateRequest;
 import ee.enefit.store.entity.ItemEntity;
+import ee.enefit.store.entity.UuidV7;
 import ee.enefit.store.messaging.ItemSoldEvent;
-import ee.enefit.store.messaging.ItemSoldProducer;
+import ee.enefit.store.messaging.ItemSoldOutbox;
 import ee.enefit.store.repository.ItemRepository;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
@@ -26,71 +28,118 @@ import org.springframework.transaction.annotation.Transactional;
 public class ItemService {
 
     private final ItemRepository itemRepository;
-    private final ItemSoldProducer producer;
-
+    private final ItemSoldOutbox outbox;
+    private final StockReservationService reservations;
+    private final ItemCache itemCache;
+    private final SellMetrics sellMetrics;
+
+    /**
+     * Lookups fill the item cache, so they read from the primary: a lagging replica could put an old version
+     * back into the cache right after a write evicted it. The loader may not run in a read-only transaction,
+     * which is why this does not use {@code findById}.
+     */
     public Optional<ItemResponse> getItemById(UUID id) {
-        return itemRepository.findById(id)
-                .map(this::mapToResponse);
+        return itemCache.get(id, key -> itemRepository.findOnPrimaryById(key).map(ItemService::mapToResponse));
     }
 
+    /**
+     * @throws DuplicateKeyException if another item already has the name, ignoring case
+     */
+    @Transactional
     public ItemResponse createItem(ItemRequest request) {
-        ItemEntity entity = new ItemEntity();
-        entity.setName(request.getName());
-        entity.setPrice(request.getPrice());
-        entity.setQuantity(request.getQuantity());
-        entity.setVersion(1);
-
-        ItemEntity saved = itemRepository.save(entity);
-        return mapToResponse(saved);
+        return itemRepository.insertIfNameFree(UuidV7.next(), request.getName(), request.getPriceCents(),
+                        request.getQuantity())
+                .map(ItemService::mapToResponse)
+                .orElseThrow(() -> new DuplicateKeyException("Item name already exists: " + request.getName()));
     }
 
-    public Optional<ItemResponse> findByName(String name) {
-        return itemRepository.findByNameIgnoreCase(name)
-                .map(this::mapToResponse);
+    /**
+     * Returns up to {@code limit} items after {@code cursor} in (name, id) order, optionally filtered by a
+     * case-insensitive name substring. One extra row is fetched to tell whether another page exists.
+     * Read-only, so it may be served by the read replica.
+     */
+    @Transactional(readOnly = true)
+    public ItemPage listItems(String nameFilter, String cursor, int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("limit must be > 0");
+        }
+        ItemCursor after = cursor == null || cursor.isBlank() ? null : ItemCursor.decode(cursor);
+        int fetch = limit + 1;
+        List<ItemEntity> rows;
+        if (nameFilter == null) {
+            rows = after == null
+                    ? itemRepository.findPage(fetch)
+                    : itemRepository.findPageAfter(after.name(), after.id(), fetch);
+        } else {
+            String pattern = "%" + escapeLike(nameFilter) + "%";
+            rows = after == null
+                    ? itemRepository.searchPage(pattern, fetch)
+                    : itemRepository.searchPageAfter(pattern, after.name(), after.id(), fetch);
+        }
+
+        boolean hasMore = rows.size() > limit;
+        List<ItemEntity> page = hasMore ? rows.subList(0, limit) : rows;
+        String nextCursor = null;
+        if (hasMore) {
+            ItemEntity last = page.get(page.size() - 1);
+            nextCursor = new ItemCursor(last.getName(), last.getId()).encode();
+        }
+        return new ItemPage(page.stream().map(ItemService::mapToResponse).toList(), nextCursor);
     }
 
-    public List<ItemResponse> searchByName(String name) {
-        return itemRepository.findByNameContainingIgnoreCase(name)
+    /** Read-only, so it may be served by the read replica. */
+    @Transactional(readOnly = true)
+    public List<ItemResponse> searchByRelevance(String query, int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("limit must be > 0");
+        }
+        return itemRepository.searchBySimilarity("%" + escapeLike(query) + "%", query, limit)
                 .stream()
-                .map(this::mapToResponse)
+                .map(ItemService::mapToResponse)
                 .toList();
     }
 
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
     @Transactional
     public boolean deleteItem(UUID id) {
         try {
             itemRepository.deleteById(id);
+            reservations.evict(id);
+            itemCache.invalidate(id);
             return true;
         } catch (EmptyResultDataAccessException ex) {
             return false;
         }
     }
 
+    /**
+     * Updates the given fields in a single conditional statement. If {@code request.version} is set, the update
+     * only applies while the item still has that version.
+     * A rename onto a name that is already taken fails on {@code uk_items_name} with a
+     * {@link org.springframework.dao.DataIntegrityViolationException}.
+     *
+     * @return empty if the item does not exist
+     * @throws OptimisticLockingFailureException if the item's version no longer matches {@code request.version}
+     */
     @Transactional
     public Optional<ItemResponse> updateItem(UUID id, ItemUpdateRequest request) {
-        Optional<ItemEntity> optionalEntity = itemRepository.findById(id);
-        if (optionalEntity.isEmpty()) {
+        Optional<ItemEntity> result = itemRepository.updateFields(id, request.getName(), request.getPriceCents(),
+                request.getQuantity(), request.getVersion());
+        if (result.isEmpty()) {
+            if (request.getVersion() != null && itemRepository.findQuantityById(id).isPresent()) {
+                sellMetrics.versionConflict();
+                throw new OptimisticLockingFailureException("Item " + id + " is no longer at version "
+                        + request.getVersion());
+            }
             return Optional.empty();
         }
 
-        ItemEntity entity = optionalEntity.get();
-
-        if (request.getName() != null &&
-                !request.getName().equalsIgnoreCase(entity.getName()) &&
-                itemRepository.existsByNameIgnoreCase(request.getName())) {
-            throw new IllegalArgumentException("Name already exists");
-        }
-        if (request.getName() != null) {
-            entity.setName(request.getName());
-        }
-        if (request.getPrice() != null) {
-            entity.setPrice(BigDecimal.valueOf(request.getPrice()));
-        }
-        if (request.getQuantity() != null) {
-            entity.setQuantity(request.getQuantity());
-        }
-        entity.setUpdatedAt(OffsetDateTime.now().toInstant());
-        ItemEntity updated = itemRepository.save(entity);
+        ItemEntity updated = result.get();
+        reservations.evict(id);
+        itemCache.invalidate(id);
         return Optional.of(mapToResponse(updated));
     }
 
@@ -99,46 +148,57 @@ public class ItemService {
         if (quantity <= 0) {
             throw new IllegalArgumentException("quantity must be > 0");
         }
-        ItemEntity item = itemRepository.findById(itemId)
-                .orElseThrow(() -> new IllegalArgumentException("Item not found: " + itemId));
-        if (item.getQuantity() < quantity) {
-            throw new IllegalArgumentException("Insufficient stock. Requested " + quantity + ", available "
-                    + item.getQuantity());
-        }
-        item.setQuantity(item.getQuantity() - quantity);
+        Timer.Sample sample = sellMetrics.start();
+        String outcome = "error";
         try {
-            itemRepository.saveAndFlush(item);
-        } catch (OptimisticLockingFailureException e) {
-            throw new IllegalStateException("Concurrent update detected for item " + itemId);
+            ItemRepository.StockDecrement decrement = itemRepository.decrementStock(itemId, quantity)
+                    .orElseThrow(() -> sellRejection(itemId, quantity));
+            long totalCents = lineTotal(decrement.getPriceCents(), quantity);
+            ItemSoldEvent event = new ItemSoldEvent(
+                    UuidV7.next(),
+                    itemId,
+                    quantity,
+                    decrement.getPriceCents(),
+                    totalCents,
+                    ItemSoldEvent.soldNow()
+            );
+            outbox.enqueue(event);
+            itemCache.invalidate(itemId);
+            outcome = "sold";
+            return event;
+        } catch (IllegalArgumentException rejected) {
+            outcome = "rejected";
+            throw rejected;
+        } finally {
+            sellMetrics.stop(sample, outcome);
         }
-        BigDecimal total = item.getPrice().multiply(BigDecimal.valueOf(quantity));
-        ItemSoldEvent event = new ItemSoldEvent(
-                UUID.randomUUID(),
-                itemId,
-                quantity,
-                item.getPrice(),
-                total,
-                Instant.now()
-        );
-        producer.publish(event);
-        return event;
     }
 
-    public boolean isNameConflict(UUID id, String name) {
-        if (name == null || name.isBlank()) {
-            return false;
+    private IllegalArgumentException sellRejection(UUID itemId, int requested) {
+        Optional<Integer> available = itemRepository.findQuantityById(itemId);
+        if (available.isEmpty()) {
+            sellMetrics.itemNotFound();
+            return new IllegalArgumentException("Item not found: " + itemId);
         }
+        sellMetrics.insufficientStock();
+        return new IllegalArgumentException("Insufficient stock. Requested " + requested
+                + ", available " + available.get());
+    }
 
-        Optional<ItemEntity> existing = itemRepository.findByNameIgnoreCase(name);
-        return existing.isPresent() && !existing.get().getId().equals(id);
+    /**
+     * @throws ArithmeticException if the total overflows a {@code long} number of cents
+     */
+    static long lineTotal(long priceCents, int quantity) {
+        return Math.multiplyExact(priceCents, quantity);
     }
 
-    private ItemResponse mapToResponse(ItemEntity entity) {
+    static ItemResponse mapToResponse(ItemEntity entity) {
         return new ItemResponse(
                 entity.getId(),
                 entity.getName(),
-                entity.getPrice(),
-                entity.getQuantity()
+                entity.getPriceCents(),
+                entity.getQuantity(),
+                entity.getVersion()
         );
     }
 }
\ No newline at end of file
@@ -0,0 +1,92 @@
+package ee.enefit.store.service;
+
+import ee.enefit.store.dto.CheckoutRequest;
+import ee.enefit.store.entity.ItemEntity;
+import ee.enefit.store.entity.UuidV7;
+import ee.enefit.store.messaging.ItemSoldEvent;
+import ee.enefit.store.messaging.ItemSoldOutbox;
+import ee.enefit.store.repository.ItemRepository;
+import ee.enefit.store.repository.ItemRepositoryCustom.DecrementedLine;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+public class OrderService {
+
+    private final ItemRepository itemRepository;
+    private final ItemSoldOutbox outbox;
+    private final ItemCache itemCache;
+    private final SellMetrics sellMetrics;
+
+    /**
+     * Sells every line of the basket or none of them. Repeated item ids are merged into one line.
+     */
+    @Transactional
+    public List<ItemSoldEvent> checkout(List<CheckoutRequest.Line> lines) {
+        if (lines == null || lines.isEmpty()) {
+            throw new IllegalArgumentException("checkout needs at least one line");
+        }
+        Map<UUID, Integer> quantities = new LinkedHashMap<>();
+        for (CheckoutRequest.Line line : lines) {
+            if (line.quantity() <= 0) {
+                throw new IllegalArgumentException("quantity must be > 0");
+            }
+            try {
+                quantities.merge(line.itemId(), line.quantity(), Math::addExact);
+            } catch (ArithmeticException overflow) {
+                throw new IllegalArgumentException("Total quantity for item " + line.itemId() + " is too large");
+            }
+        }
+
+        List<DecrementedLine> decremented = itemRepository.decrementStockBatch(quantities);
+        if (decremented.size() != quantities.size()) {
+            throw checkoutRejection(quantities);
+        }
+
+        Instant soldAt = ItemSoldEvent.soldNow();
+        List<ItemSoldEvent> events = new ArrayList<>(decremented.size());
+        for (DecrementedLine line : decremented) {
+            int quantity = quantities.get(line.itemId());
+            events.add(new ItemSoldEvent(
+                    UuidV7.next(),
+                    line.itemId(),
+                    quantity,
+                    line.priceCents(),
+                    ItemService.lineTotal(line.priceCents(), quantity),
+                    soldAt
+            ));
+        }
+        outbox.enqueueAll(events);
+        itemCache.invalidateAll(quantities.keySet());
+        return events;
+    }
+
+    private IllegalArgumentException checkoutRejection(Map<UUID, Integer> quantities) {
+        Map<UUID, ItemEntity> items = itemRepository.findAllById(quantities.keySet()).stream()
+                .collect(Collectors.toMap(ItemEntity::getId, Function.identity()));
+        for (Map.Entry<UUID, Integer> line : quantities.entrySet()) {
+            ItemEntity item = items.get(line.getKey());
+            if (item == null) {
+                sellMetrics.itemNotFound();
+                return new IllegalArgumentException("Item not found: " + line.getKey());
+            }
+            if (item.getQuantity() < line.getValue()) {
+                sellMetrics.insufficientStock();
+                return new IllegalArgumentException("Insufficient stock for item " + line.getKey()
+                        + ". Requested " + line.getValue() + ", available " + item.getQuantity());
+            }
+        }
+        return new IllegalArgumentException("Checkout rejected");
+    }
+}
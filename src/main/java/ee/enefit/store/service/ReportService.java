@@ -4,24 +4,56 @@ import ee.enefit.store.dto.SoldItemAggregateDto;
 import ee.enefit.store.dto.StockLevelViewDto;
 import ee.enefit.store.repository.ItemRepository;
 import ee.enefit.store.repository.SaleRepository;
+import ee.enefit.store.repository.SalesRollupRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
 import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.UUID;
 
-
+/**
+ * Report queries. All of them run in read-only transactions, which are served by the read replica when one is
+ * configured and not lagging (see {@code ReplicaRoutingConfig}).
+ */
 @Service
 @RequiredArgsConstructor
+@Transactional(readOnly = true)
 public class ReportService {
 
+    private static final Duration BUCKET = Duration.ofHours(1);
+
     private final ItemRepository itemRepository;
     private final SaleRepository saleRepository;
+    private final SalesRollupRepository salesRollupRepository;
 
     public List<StockLevelViewDto> getCurrentStockLevels() {
         return itemRepository.findCurrentStockLevels();
     }
 
+    /**
+     * One keyset page of the stock report ordered by name, starting after {@code afterName}
+     * ({@code null} for the first page).
+     */
+    public List<StockLevelViewDto> getStockLevelsPage(String afterName, int limit) {
+        PageRequest page = PageRequest.ofSize(limit);
+        return (afterName == null)
+                ? itemRepository.findStockLevelsFirstPage(page)
+                : itemRepository.findStockLevelsAfter(afterName, page);
+    }
+
+    /**
+     * Sums sales sold in [from, to], both inclusive. Whole hours come from the rollup table;
+     * only the partial hours at either edge of the range are read from raw sales.
+     */
     public List<SoldItemAggregateDto> getSoldItemsSummary(Instant from, Instant to) {
         Instant fromBound = (from != null)
                 ? from
@@ -29,6 +61,45 @@ public class ReportService {
         Instant toBound = (to != null)
                 ? to
                 : Instant.parse("9999-12-31T23:59:59Z");
-        return saleRepository.findSoldItemsSummary(fromBound, toBound);
+        Instant end = toBound.plusNanos(1);
+
+        Instant firstBucket = ceilToBucket(fromBound);
+        Instant lastBucketEnd = end.truncatedTo(ChronoUnit.HOURS);
+        if (!firstBucket.isBefore(lastBucketEnd)) {
+            return sortByUnits(saleRepository.summarizeRawSales(fromBound, end));
+        }
+
+        Map<UUID, SoldItemAggregateDto> merged = new LinkedHashMap<>();
+        mergeInto(merged, salesRollupRepository.summarizeBuckets(firstBucket, lastBucketEnd));
+        if (fromBound.isBefore(firstBucket)) {
+            mergeInto(merged, saleRepository.summarizeRawSales(fromBound, firstBucket));
+        }
+        if (lastBucketEnd.isBefore(end)) {
+            mergeInto(merged, saleRepository.summarizeRawSales(lastBucketEnd, end));
+        }
+        return sortByUnits(new ArrayList<>(merged.values()));
+    }
+
+    private static Instant ceilToBucket(Instant instant) {
+        Instant floor = instant.truncatedTo(ChronoUnit.HOURS);
+        return floor.equals(instant) ? floor : floor.plus(BUCKET);
+    }
+
+    private static void mergeInto(Map<UUID, SoldItemAggregateDto> merged, List<SoldItemAggregateDto> part) {
+        for (SoldItemAggregateDto row : part) {
+            merged.merge(row.itemId(), row, (a, b) -> new SoldItemAggregateDto(
+                    a.itemId(),
+                    a.name(),
+                    a.unitsSold() + b.unitsSold(),
+                    a.revenueCents() + b.revenueCents(),
+                    a.lastSoldAt().isAfter(b.lastSoldAt()) ? a.lastSoldAt() : b.lastSoldAt()
+            ));
+        }
+    }
+
+    private static List<SoldItemAggregateDto> sortByUnits(List<SoldItemAggregateDto> rows) {
+        List<SoldItemAggregateDto> sorted = new ArrayList<>(rows);
+        sorted.sort(Comparator.comparing(SoldItemAggregateDto::unitsSold).reversed());
+        return sorted;
     }
 }
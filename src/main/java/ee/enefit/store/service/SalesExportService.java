@@ -0,0 +1,105 @@
+package ee.enefit.store.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import ee.enefit.store.dto.Money;
+import ee.enefit.store.dto.SaleExportRow;
+import ee.enefit.store.repository.SaleRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+
+/**
+ * Raw sales export for reconciliation. Rows go from a server-side cursor straight into the output stream, so
+ * memory use does not depend on the size of the range; the database connection is held until the last row is
+ * written.
+ *
+ * <p>CSV has a header row and quotes names where needed; NDJSON rows are {@link SaleExportRow} objects, one
+ * per line. Amounts are decimals in both, as everywhere else in the API.
+ */
+@Slf4j
+@Service
+public class SalesExportService {
+
+    public enum Format { CSV, NDJSON }
+
+    static final String CSV_HEADER = "sale_id,sold_at,item_id,item_name,quantity,price_at_sale,total\n";
+
+    private final SaleRepository saleRepository;
+    private final ObjectWriter rowWriter;
+
+    @Value("${app.reports.export-fetch-size:5000}")
+    private int fetchSize;
+
+    public SalesExportService(SaleRepository saleRepository, ObjectMapper objectMapper) {
+        this.saleRepository = saleRepository;
+        this.rowWriter = objectMapper.writerFor(SaleExportRow.class);
+    }
+
+    /**
+     * Writes the sales sold in [from, to) to {@code out}, in sold_at order. {@code out} is flushed but not closed.
+     *
+     * @return number of sales written
+     * @throws IOException if writing to {@code out} fails, e.g. because the client went away
+     */
+    @Transactional(readOnly = true)
+    public long exportSales(Instant from, Instant to, Format format, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 1 << 16);
+        long began = System.nanoTime();
+        long exported;
+        if (format == Format.CSV) {
+            writer.write(CSV_HEADER);
+            exported = saleRepository.exportSales(from, to, fetchSize, row -> writeCsv(writer, row));
+        } else {
+            exported = saleRepository.exportSales(from, to, fetchSize, row -> {
+                writer.write(rowWriter.writeValueAsString(row));
+                writer.write('\n');
+            });
+        }
+        writer.flush();
+        log.info("Exported {} sales from [{}, {}) as {} in {} ms", exported, from, to, format,
+                (System.nanoTime() - began) / 1_000_000);
+        return exported;
+    }
+
+    private static void writeCsv(Writer writer, SaleExportRow row) throws IOException {
+        writer.write(row.saleId().toString());
+        writer.write(',');
+        writer.write(row.soldAt().toString());
+        writer.write(',');
+        writer.write(row.itemId().toString());
+        writer.write(',');
+        writeCsvField(writer, row.itemName());
+        writer.write(',');
+        writer.write(Integer.toString(row.quantity()));
+        writer.write(',');
+        writer.write(Money.toDecimal(row.priceAtSaleCents()).toPlainString());
+        writer.write(',');
+        writer.write(Money.toDecimal(row.totalCents()).toPlainString());
+        writer.write('\n');
+    }
+
+    static void writeCsvField(Writer writer, String value) throws IOException {
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
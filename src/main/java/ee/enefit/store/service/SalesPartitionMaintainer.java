@@ -0,0 +1,33 @@
+package ee.enefit.store.service;
+
+import ee.enefit.store.repository.SaleRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps monthly {@code sales} partitions created ahead of time, so new sales never land in the default partition.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SalesPartitionMaintainer {
+
+    private final SaleRepository saleRepository;
+
+    @Value("${app.sales.partitions-ahead-months:3}")
+    private int monthsAhead;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${app.sales.partition-maintenance-cron:0 0 3 * * *}", zone = "UTC")
+    public void ensurePartitions() {
+        int created = saleRepository.createMonthlyPartitions(monthsAhead);
+        if (created > 0) {
+            log.info("Created {} monthly sales partitions", created);
+        }
+    }
+}
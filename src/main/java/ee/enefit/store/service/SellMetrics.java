@@ -0,0 +1,60 @@
+package ee.enefit.store.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+/**
+ * Business meters of the sell pipeline. Repository calls, Kafka sends (publish to ack) and listener
+ * processing are timed by Spring Data and Spring for Apache Kafka themselves
+ * ({@code spring.data.repository.invocations}, {@code spring.kafka.template}, {@code spring.kafka.listener}).
+ */
+@Component
+public class SellMetrics {
+
+    private final MeterRegistry registry;
+    private final Counter insufficientStock;
+    private final Counter itemNotFound;
+    private final Counter versionConflicts;
+
+    public SellMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        this.insufficientStock = Counter.builder("store.sell.rejections")
+                .description("Sells and checkout lines rejected by the stock check")
+                .tag("reason", "insufficient_stock")
+                .register(registry);
+        this.itemNotFound = Counter.builder("store.sell.rejections")
+                .description("Sells and checkout lines rejected by the stock check")
+                .tag("reason", "not_found")
+                .register(registry);
+        this.versionConflicts = Counter.builder("store.item.version.conflicts")
+                .description("Conditional item updates rejected because the version had moved on")
+                .register(registry);
+    }
+
+    public Timer.Sample start() {
+        return Timer.start(registry);
+    }
+
+    /** {@code outcome} is one of {@code sold}, {@code rejected} or {@code error}. */
+    public void stop(Timer.Sample sample, String outcome) {
+        sample.stop(Timer.builder("store.sell")
+                .description("Sells: ItemService.sell excluding the commit, or a reservation sell until its flush commits")
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(registry));
+    }
+
+    public void insufficientStock() {
+        insufficientStock.increment();
+    }
+
+    public void itemNotFound() {
+        itemNotFound.increment();
+    }
+
+    public void versionConflict() {
+        versionConflicts.increment();
+    }
+}
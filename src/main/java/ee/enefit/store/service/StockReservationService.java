@@ -0,0 +1,310 @@
+package ee.enefit.store.service;
+
+import ee.enefit.store.entity.UuidV7;
+import ee.enefit.store.messaging.ItemSoldEvent;
+import ee.enefit.store.messaging.ItemSoldOutbox;
+import ee.enefit.store.repository.ItemRepository;
+import ee.enefit.store.repository.ItemRepositoryCustom.DecrementedLine;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Optional in-memory admission layer for hot items ({@code app.reservation.enabled}).
+ *
+ * <p>Sells are admitted or rejected against a {@link StripedStockCounter} per item and then wait for the
+ * next flush, which applies all pending decrements in one transaction with the same conditional batch
+ * update the checkout uses. A sell returns only after that transaction has committed, so a restart loses
+ * nothing that was confirmed; counters are plain caches of {@code items.quantity} and are rebuilt lazily.
+ * The database stays the authority: if another node sold the stock first, the conditional update rejects
+ * the pending sells and the counter is reloaded, so the layer can never oversell.
+ *
+ * <p>A reloaded counter starts from the database quantity minus the units of sells that were admitted but are
+ * not flushed yet, so a resync never admits more than the flush can apply. A sell counts itself in flight
+ * before it takes from the counter, retries if the counter was reloaded in between, and stops counting once
+ * its flush is over; an item's in-flight entry is dropped once none of its sells are waiting. Races between a
+ * sell and a reload can only subtract a sell twice, which under-admits until the next resync. A counter loaded
+ * while another thread evicts it may be put back with the quantity read before the eviction; the conditional
+ * update still rejects anything it over-admits, and the next resync replaces it.
+ *
+ * <p>Every admitted sell waits for the flush, so it runs on its own thread rather than the shared
+ * {@code @Scheduled} pool, where a slow report or partition job could hold it up. Sells are timed as
+ * {@code store.sell}, like {@link ItemService#sell}, up to the flush that confirms them.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class StockReservationService implements DisposableBean {
+
+    private final ItemRepository itemRepository;
+    private final ItemSoldOutbox outbox;
+    private final TransactionTemplate transactionTemplate;
+    private final ItemCache itemCache;
+    private final SellMetrics sellMetrics;
+
+    private final Map<UUID, StripedStockCounter> counters = new ConcurrentHashMap<>();
+    private final Map<UUID, LongAdder> inFlight = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<PendingSale> pending = new ConcurrentLinkedQueue<>();
+    private final ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("reservation-flush").daemon().factory());
+
+    @Value("${app.reservation.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.reservation.stripes:8}")
+    private int stripes;
+
+    @Value("${app.reservation.max-batch:2000}")
+    private int maxBatch;
+
+    @Value("${app.reservation.confirm-timeout-ms:5000}")
+    private long confirmTimeoutMs;
+
+    @Value("${app.reservation.flush-interval-ms:5}")
+    private long flushIntervalMs;
+
+    @PostConstruct
+    void start() {
+        if (enabled) {
+            flusher.scheduleWithFixedDelay(this::flushLogged, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @throws IllegalStateException if the sale was not confirmed within {@code app.reservation.confirm-timeout-ms};
+     *                               its outcome is then unknown to the caller, it may still be applied by the flush
+     */
+    public ItemSoldEvent sell(UUID itemId, int quantity) {
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("quantity must be > 0");
+        }
+        Timer.Sample sample = sellMetrics.start();
+        String outcome = "error";
+        try {
+            ItemSoldEvent event = admitAndConfirm(itemId, quantity);
+            outcome = "sold";
+            return event;
+        } catch (IllegalArgumentException rejected) {
+            outcome = "rejected";
+            throw rejected;
+        } finally {
+            sellMetrics.stop(sample, outcome);
+        }
+    }
+
+    private ItemSoldEvent admitAndConfirm(UUID itemId, int quantity) {
+        StripedStockCounter counter;
+        LongAdder units;
+        while (true) {
+            counter = counter(itemId);
+            units = inFlight.computeIfAbsent(itemId, id -> new LongAdder());
+            units.add(quantity);
+            if (counters.get(itemId) == counter && inFlight.get(itemId) == units) {
+                break;
+            }
+            // reloaded in between, possibly without these units, or the idle in-flight entry was pruned; start over
+            units.add(-quantity);
+        }
+        if (!counter.tryAcquire(quantity)) {
+            units.add(-quantity);
+            pruneInFlight(itemId);
+            sellMetrics.insufficientStock();
+            throw new IllegalArgumentException("Insufficient stock. Requested " + quantity + ", available "
+                    + counter.available());
+        }
+        PendingSale sale = new PendingSale(itemId, quantity, new CompletableFuture<>());
+        pending.add(sale);
+        try {
+            return sale.result().orTimeout(confirmTimeoutMs, TimeUnit.MILLISECONDS).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof TimeoutException) {
+                throw new IllegalStateException("Sale of item " + itemId + " was not confirmed within "
+                        + confirmTimeoutMs + " ms", e.getCause());
+            }
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /** Drops the cached counter, e.g. after a restock; the next sell reloads it from the database. */
+    public void evict(UUID itemId) {
+        counters.remove(itemId);
+    }
+
+    /** Picks up stock changes made by other nodes or directly in the database. */
+    @Scheduled(fixedDelayString = "${app.reservation.resync-interval-ms:1000}")
+    public void resync() {
+        if (enabled) {
+            counters.clear();
+        }
+    }
+
+    /** A task that throws would never run again, so failures are logged and the next flush tries afresh. */
+    private void flushLogged() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.error("Reservation flush failed", e);
+        }
+    }
+
+    public void flush() {
+        if (!enabled) {
+            return;
+        }
+        List<PendingSale> batch;
+        while (!(batch = drain()).isEmpty()) {
+            flushBatch(batch);
+        }
+    }
+
+    void flushBatch(List<PendingSale> drained) {
+        Map<UUID, Integer> totals = new LinkedHashMap<>();
+        List<PendingSale> batch = new ArrayList<>(drained.size());
+        for (PendingSale sale : drained) {
+            try {
+                totals.merge(sale.itemId(), sale.quantity(), Math::addExact);
+                batch.add(sale);
+            } catch (ArithmeticException full) {
+                // this item's total for the batch would overflow; the sale goes out with the next batch
+                pending.add(sale);
+            }
+        }
+        try {
+            applyBatch(batch, totals);
+        } finally {
+            batch.forEach(sale -> inFlight.get(sale.itemId()).add(-sale.quantity()));
+            totals.keySet().forEach(this::pruneInFlight);
+        }
+    }
+
+    /**
+     * Drops the item's in-flight entry once nothing is in flight, so the map only holds items with sells waiting.
+     * A sell that added to the entry just before it was dropped sees it gone and starts over.
+     */
+    private void pruneInFlight(UUID itemId) {
+        inFlight.computeIfPresent(itemId, (id, units) -> units.sum() == 0 ? null : units);
+    }
+
+    private void applyBatch(List<PendingSale> batch, Map<UUID, Integer> totals) {
+        Map<PendingSale, ItemSoldEvent> confirmed = new LinkedHashMap<>();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                Map<UUID, DecrementedLine> applied = itemRepository.decrementStockBatch(totals).stream()
+                        .collect(Collectors.toMap(DecrementedLine::itemId, Function.identity()));
+                Instant soldAt = ItemSoldEvent.soldNow();
+                for (PendingSale sale : batch) {
+                    DecrementedLine line = applied.get(sale.itemId());
+                    if (line != null) {
+                        confirmed.put(sale, new ItemSoldEvent(
+                                UuidV7.next(),
+                                sale.itemId(),
+                                sale.quantity(),
+                                line.priceCents(),
+                                ItemService.lineTotal(line.priceCents(), sale.quantity()),
+                                soldAt
+                        ));
+                    }
+                }
+                outbox.enqueueAll(new ArrayList<>(confirmed.values()));
+                itemCache.invalidateAll(applied.keySet());
+            });
+        } catch (RuntimeException e) {
+            log.error("Reservation flush of {} sells failed", batch.size(), e);
+            confirmed.clear();
+            totals.keySet().forEach(counters::remove);
+            batch.forEach(sale -> sale.result().completeExceptionally(
+                    new IllegalStateException("Sale could not be confirmed for item " + sale.itemId(), e)));
+            return;
+        }
+
+        for (PendingSale sale : batch) {
+            ItemSoldEvent event = confirmed.get(sale);
+            if (event != null) {
+                sale.result().complete(event);
+            } else {
+                counters.remove(sale.itemId());
+                sellMetrics.insufficientStock();
+                sale.result().completeExceptionally(new IllegalArgumentException(
+                        "Insufficient stock. Requested " + sale.quantity() + " of item " + sale.itemId()));
+            }
+        }
+    }
+
+    private List<PendingSale> drain() {
+        List<PendingSale> batch = new ArrayList<>();
+        PendingSale sale;
+        while (batch.size() < maxBatch && (sale = pending.poll()) != null) {
+            batch.add(sale);
+        }
+        return batch;
+    }
+
+    /**
+     * Loads outside the map's locks: {@code computeIfAbsent} would run the query inside a bin lock and pin a
+     * virtual thread to its carrier while it waits for a pooled connection. Two sells may both load; the first
+     * counter put wins.
+     */
+    private StripedStockCounter counter(UUID itemId) {
+        StripedStockCounter counter = counters.get(itemId);
+        if (counter != null) {
+            return counter;
+        }
+        StripedStockCounter loaded = loadCounter(itemId);
+        counter = counters.putIfAbsent(itemId, loaded);
+        return counter != null ? counter : loaded;
+    }
+
+    /** In-flight units are read before the quantity; see the class comment for why that order is safe. */
+    private StripedStockCounter loadCounter(UUID itemId) {
+        LongAdder units = inFlight.get(itemId);
+        long admitted = units == null ? 0 : units.sum();
+        Optional<Integer> quantity = itemRepository.findQuantityById(itemId);
+        if (quantity.isEmpty()) {
+            sellMetrics.itemNotFound();
+            throw new IllegalArgumentException("Item not found: " + itemId);
+        }
+        return new StripedStockCounter(Math.max(0, quantity.get() - admitted), stripes);
+    }
+
+    /** Stops the flush thread, then flushes once more so sells already admitted are not left waiting. */
+    @Override
+    public void destroy() throws InterruptedException {
+        flusher.shutdown();
+        flusher.awaitTermination(confirmTimeoutMs, TimeUnit.MILLISECONDS);
+        flush();
+    }
+
+    record PendingSale(UUID itemId, int quantity, CompletableFuture<ItemSoldEvent> result) {}
+}
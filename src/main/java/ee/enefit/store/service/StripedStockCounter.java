@@ -0,0 +1,93 @@
+package ee.enefit.store.service;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free stock counter spread over several cells, in the spirit of {@link java.util.concurrent.atomic.LongAdder}.
+ * A caller first takes from its home cell; when that cell runs short it borrows from the others with CAS.
+ * The sum of all cells never goes below zero, so admissions can never exceed the stock the counter was seeded with.
+ */
+final class StripedStockCounter {
+
+    /** Longs between two used slots, so neighbouring cells sit on different cache lines. */
+    private static final int PADDING = 16;
+
+    private final AtomicLongArray cells;
+    private final int stripes;
+
+    StripedStockCounter(long initial, int stripes) {
+        if (initial < 0) {
+            throw new IllegalArgumentException("initial stock must be >= 0");
+        }
+        this.stripes = Math.max(1, stripes);
+        this.cells = new AtomicLongArray(this.stripes * PADDING);
+        long share = initial / this.stripes;
+        for (int i = 0; i < this.stripes; i++) {
+            cells.set(slot(i), share);
+        }
+        cells.addAndGet(slot(0), initial - share * this.stripes);
+    }
+
+    /**
+     * Takes {@code units} if that much is available across all cells. A concurrent borrower can make
+     * this return {@code false} while stock is briefly in transit, never the other way round.
+     */
+    boolean tryAcquire(long units) {
+        int home = homeStripe();
+        if (tryTake(home, units)) {
+            return true;
+        }
+        long gathered = 0;
+        for (int i = 0; i < stripes && gathered < units; i++) {
+            gathered += takeUpTo((home + i) % stripes, units - gathered);
+        }
+        if (gathered == units) {
+            return true;
+        }
+        cells.addAndGet(slot(home), gathered);
+        return false;
+    }
+
+    long available() {
+        long sum = 0;
+        for (int i = 0; i < stripes; i++) {
+            sum += cells.get(slot(i));
+        }
+        return sum;
+    }
+
+    private boolean tryTake(int stripe, long units) {
+        int slot = slot(stripe);
+        long current;
+        do {
+            current = cells.get(slot);
+            if (current < units) {
+                return false;
+            }
+        } while (!cells.compareAndSet(slot, current, current - units));
+        return true;
+    }
+
+    private long takeUpTo(int stripe, long wanted) {
+        int slot = slot(stripe);
+        long current;
+        long taken;
+        do {
+            current = cells.get(slot);
+            taken = Math.min(current, wanted);
+            if (taken <= 0) {
+                return 0;
+            }
+        } while (!cells.compareAndSet(slot, current, current - taken));
+        return taken;
+    }
+
+    private int homeStripe() {
+        return ThreadLocalRandom.current().nextInt(stripes);
+    }
+
+    private static int slot(int stripe) {
+        return stripe * PADDING;
+    }
+}
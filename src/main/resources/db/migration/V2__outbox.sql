@@ -0,0 +1,9 @@
+-- transactional outbox for events written together with the sell transaction
+
+CREATE SEQUENCE IF NOT EXISTS outbox_seq INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS outbox (
+    id BIGINT PRIMARY KEY,
+    payload TEXT NOT NULL,
+    created_at TIMESTAMPTZ NOT NULL DEFAULT now()
+    );
@@ -0,0 +1,22 @@
+-- hourly per-item sales rollup, maintained by the sales consumer
+
+CREATE TABLE IF NOT EXISTS sales_rollup (
+    item_id UUID NOT NULL REFERENCES items(id) ON DELETE CASCADE ON UPDATE CASCADE,
+    bucket_start TIMESTAMPTZ NOT NULL,
+    units BIGINT NOT NULL,
+    revenue NUMERIC(18,2) NOT NULL,
+    last_sold_at TIMESTAMPTZ NOT NULL,
+    PRIMARY KEY (item_id, bucket_start)
+    );
+
+CREATE INDEX IF NOT EXISTS idx_sales_rollup_bucket_start ON sales_rollup(bucket_start);
+
+INSERT INTO sales_rollup (item_id, bucket_start, units, revenue, last_sold_at)
+SELECT item_id,
+       date_bin('1 hour', sold_at, TIMESTAMPTZ '2000-01-01 00:00:00+00'),
+       sum(quantity),
+       sum(total),
+       max(sold_at)
+FROM sales
+GROUP BY 1, 2
+ON CONFLICT (item_id, bucket_start) DO NOTHING;
@@ -0,0 +1,57 @@
+-- sales partitioned by calendar month (UTC) on sold_at
+
+ALTER TABLE sales RENAME TO sales_unpartitioned;
+ALTER TABLE sales_unpartitioned RENAME CONSTRAINT sales_pkey TO sales_unpartitioned_pkey;
+ALTER INDEX idx_sales_item_id RENAME TO idx_sales_unpartitioned_item_id;
+
+CREATE TABLE sales (
+    id UUID NOT NULL,
+    item_id UUID NOT NULL REFERENCES items(id) ON DELETE CASCADE ON UPDATE CASCADE,
+    quantity INT NOT NULL CHECK (quantity > 0),
+    price_at_sale NUMERIC(12,2) NOT NULL CHECK (price_at_sale >= 0),
+    total NUMERIC(12,2) NOT NULL,
+    sold_at TIMESTAMPTZ NOT NULL DEFAULT now(),
+    PRIMARY KEY (id, sold_at)
+    ) PARTITION BY RANGE (sold_at);
+
+CREATE INDEX IF NOT EXISTS idx_sales_sold_at ON sales(sold_at);
+CREATE INDEX IF NOT EXISTS idx_sales_item_id_sold_at ON sales(item_id, sold_at);
+
+-- catches rows outside every monthly partition; stays empty while partitions are created ahead of time
+CREATE TABLE IF NOT EXISTS sales_default PARTITION OF sales DEFAULT;
+
+-- creates the monthly partitions covering [from_ts, to_ts]; safe to call repeatedly and from several nodes
+CREATE OR REPLACE FUNCTION create_sales_partitions(from_ts TIMESTAMPTZ, to_ts TIMESTAMPTZ)
+RETURNS INT
+LANGUAGE plpgsql
+AS $$
+DECLARE
+    month_start TIMESTAMP := date_trunc('month', from_ts AT TIME ZONE 'UTC');
+    last_month TIMESTAMP := date_trunc('month', to_ts AT TIME ZONE 'UTC');
+    partition_name TEXT;
+    created INT := 0;
+BEGIN
+    PERFORM pg_advisory_xact_lock(hashtext('create_sales_partitions'));
+    WHILE month_start <= last_month LOOP
+        partition_name := 'sales_' || to_char(month_start, 'YYYY_MM');
+        IF to_regclass(partition_name) IS NULL THEN
+            EXECUTE format('CREATE TABLE %I PARTITION OF sales FOR VALUES FROM (%L) TO (%L)',
+                           partition_name,
+                           month_start AT TIME ZONE 'UTC',
+                           (month_start + INTERVAL '1 month') AT TIME ZONE 'UTC');
+            created := created + 1;
+        END IF;
+        month_start := month_start + INTERVAL '1 month';
+    END LOOP;
+    RETURN created;
+END;
+$$;
+
+SELECT create_sales_partitions(COALESCE(min(sold_at), now()), now() + INTERVAL '3 months')
+FROM sales_unpartitioned;
+
+INSERT INTO sales (id, item_id, quantity, price_at_sale, total, sold_at)
+SELECT id, item_id, quantity, price_at_sale, total, sold_at
+FROM sales_unpartitioned;
+
+DROP TABLE sales_unpartitioned;
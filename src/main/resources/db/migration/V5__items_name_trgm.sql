@@ -0,0 +1,5 @@
+-- trigram index so substring (ILIKE '%x%') and similarity searches on item names avoid a sequential scan
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS idx_items_name_trgm ON items USING gin (name gin_trgm_ops);
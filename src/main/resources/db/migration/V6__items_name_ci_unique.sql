@@ -0,0 +1,8 @@
+-- case-insensitive name uniqueness, enforced by the index so create/rename need no pre-check queries
+
+ALTER TABLE items DROP CONSTRAINT IF EXISTS items_name_key;
+
+CREATE UNIQUE INDEX IF NOT EXISTS uk_items_name ON items (lower(name));
+
+-- keyset pagination order (name, id); previously served in part by the dropped constraint's index
+CREATE INDEX IF NOT EXISTS idx_items_name_id ON items (name, id);
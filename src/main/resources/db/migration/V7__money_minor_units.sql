@@ -0,0 +1,14 @@
+-- money as BIGINT minor units (cents); every amount was NUMERIC(..,2), so the conversion is exact
+
+ALTER TABLE items ALTER COLUMN price TYPE BIGINT USING (price * 100)::BIGINT;
+ALTER TABLE items RENAME COLUMN price TO price_cents;
+
+-- altering the partitioned parent rewrites every partition
+ALTER TABLE sales
+    ALTER COLUMN price_at_sale TYPE BIGINT USING (price_at_sale * 100)::BIGINT,
+    ALTER COLUMN total TYPE BIGINT USING (total * 100)::BIGINT;
+ALTER TABLE sales RENAME COLUMN price_at_sale TO price_at_sale_cents;
+ALTER TABLE sales RENAME COLUMN total TO total_cents;
+
+ALTER TABLE sales_rollup ALTER COLUMN revenue TYPE BIGINT USING (revenue * 100)::BIGINT;
+ALTER TABLE sales_rollup RENAME COLUMN revenue TO revenue_cents;
@@ -0,0 +1,4 @@
+-- a relay claims rows for the time it takes to send them instead of holding their row locks open;
+-- rows of a relay that died become claimable again once claimed_until has passed
+
+ALTER TABLE outbox ADD COLUMN claimed_until TIMESTAMPTZ;
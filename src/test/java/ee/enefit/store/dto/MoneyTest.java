@@ -0,0 +1,82 @@
+package ee.enefit.store.dto;
+
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MoneyTest {
+
+    final ObjectMapper mapper = Jackson2ObjectMapperBuilder.json().build();
+
+    @Test
+    void toMinorUnits_roundsHalfUp_likeTheFormerNumericColumns() {
+        // expected values are what Postgres stores for these inputs in a NUMERIC(12,2) column
+        Map<String, Long> cases = Map.of(
+                "19.99", 1999L,
+                "5", 500L,
+                "12.5", 1250L,
+                "0.004", 0L,
+                "0.005", 1L,
+                "1.995", 200L,
+                "2.345", 235L,
+                "9999999999.99", 999999999999L);
+
+        cases.forEach((amount, cents) ->
+                assertThat(Money.toMinorUnits(new BigDecimal(amount))).as(amount).isEqualTo(cents));
+    }
+
+    @Test
+    void toDecimal_keepsTwoDecimals() {
+        assertThat(Money.toDecimal(1999L)).isEqualTo(new BigDecimal("19.99"));
+        assertThat(Money.toDecimal(500L)).isEqualTo(new BigDecimal("5.00"));
+        assertThat(Money.toDecimal(0L)).isEqualTo(new BigDecimal("0.00"));
+    }
+
+    @Test
+    void summingCents_matchesSummingDecimals() {
+        Random random = new Random(42);
+        long cents = 0;
+        BigDecimal decimal = BigDecimal.ZERO;
+        for (int i = 0; i < 100_000; i++) {
+            long amount = random.nextLong(100_000_000L);
+            cents += amount;
+            decimal = decimal.add(Money.toDecimal(amount));
+        }
+
+        assertThat(Money.toDecimal(cents)).isEqualTo(decimal);
+    }
+
+    @Test
+    void json_keepsDecimalAmounts() throws Exception {
+        ItemResponse response = new ItemResponse(UUID.randomUUID(), "Pen", 1999L, 3, 1);
+
+        String json = mapper.writeValueAsString(response);
+
+        assertThat(json).contains("\"price\":19.99").doesNotContain("priceCents");
+        assertThat(mapper.readValue(json, ItemResponse.class)).isEqualTo(response);
+    }
+
+    @Test
+    void json_readsNumbersAndStrings_withoutDoubleRounding() throws Exception {
+        assertThat(mapper.readValue("{\"price\":0.1}", ItemRequest.class).getPriceCents()).isEqualTo(10L);
+        assertThat(mapper.readValue("{\"price\":\"19.99\"}", ItemRequest.class).getPriceCents()).isEqualTo(1999L);
+        assertThat(mapper.readValue("{\"price\":19.995}", ItemRequest.class).getPriceCents()).isEqualTo(2000L);
+        assertThat(mapper.readValue("{\"price\":7}", ItemUpdateRequest.class).getPriceCents()).isEqualTo(700L);
+        assertThat(mapper.readValue("{\"price\":null}", ItemUpdateRequest.class).getPriceCents()).isNull();
+    }
+
+    @Test
+    void json_rejectsAmountsBeyondLongCents() {
+        assertThatThrownBy(() -> mapper.readValue("{\"price\":1e30}", ItemRequest.class))
+                .isInstanceOf(JsonMappingException.class);
+    }
+}
@@ -0,0 +1,76 @@
+package ee.enefit.store.integration;
+
+import ee.enefit.store.dto.CheckoutRequest;
+import ee.enefit.store.dto.ItemRequest;
+import ee.enefit.store.repository.ItemRepository;
+import ee.enefit.store.repository.OutboxRepository;
+import ee.enefit.store.service.ItemService;
+import ee.enefit.store.service.OrderService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CheckoutIntegrationTest extends AbstractPostgresIntegrationTest {
+
+    @Autowired
+    OrderService orderService;
+    @Autowired
+    ItemService itemService;
+    @Autowired
+    ItemRepository itemRepository;
+    @Autowired
+    OutboxRepository outboxRepository;
+
+    @Test
+    void checkout_decrementsEveryLine_andWritesOneOutboxRowPerLine() {
+        UUID pen = createItem(10);
+        UUID ink = createItem(5);
+        long outboxBefore = outboxRepository.count();
+
+        orderService.checkout(List.of(new CheckoutRequest.Line(pen, 4), new CheckoutRequest.Line(ink, 5)));
+
+        assertThat(itemRepository.findQuantityById(pen)).contains(6);
+        assertThat(itemRepository.findQuantityById(ink)).contains(0);
+        assertThat(outboxRepository.count()).isEqualTo(outboxBefore + 2);
+    }
+
+    @Test
+    void checkout_sellsNothing_whenOneLineIsShort() {
+        UUID pen = createItem(10);
+        UUID ink = createItem(1);
+
+        assertThatThrownBy(() -> orderService.checkout(List.of(
+                new CheckoutRequest.Line(pen, 4),
+                new CheckoutRequest.Line(ink, 2))))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Insufficient stock");
+
+        assertThat(itemRepository.findQuantityById(pen)).contains(10);
+        assertThat(itemRepository.findQuantityById(ink)).contains(1);
+    }
+
+    @Test
+    void overlappingBaskets_inOppositeOrder_doNotDeadlock() throws Exception {
+        UUID a = createItem(1_000);
+        UUID b = createItem(1_000);
+        int rounds = 200;
+
+        Hammer.run(2, rounds, Duration.ofMinutes(1), thread -> orderService.checkout(thread == 0
+                ? List.of(new CheckoutRequest.Line(a, 1), new CheckoutRequest.Line(b, 1))
+                : List.of(new CheckoutRequest.Line(b, 1), new CheckoutRequest.Line(a, 1))));
+
+        assertThat(itemRepository.findQuantityById(a)).contains(1_000 - 2 * rounds);
+        assertThat(itemRepository.findQuantityById(b)).contains(1_000 - 2 * rounds);
+    }
+
+    private UUID createItem(int quantity) {
+        ItemRequest request = new ItemRequest("basket-" + UUID.randomUUID(), 200L, quantity);
+        return itemService.createItem(request).getId();
+    }
+}
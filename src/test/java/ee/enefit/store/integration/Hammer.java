@@ -0,0 +1,98 @@
+package ee.enefit.store.integration;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Releases a number of threads at once, each making the same number of calls, and counts how the calls ended.
+ * Exceptions of the expected types count as failures; any other exception fails the run.
+ * {@link #runOnVirtualThreads} gives each caller its own virtual thread instead of a pooled platform thread.
+ */
+final class Hammer {
+
+    @FunctionalInterface
+    interface Call {
+        void run(int thread) throws Exception;
+    }
+
+    record Result(int successes, int failures, long elapsedNanos) {
+        double successesPerSecond() {
+            return successes * 1_000_000_000d / elapsedNanos;
+        }
+    }
+
+    private Hammer() {
+    }
+
+    @SafeVarargs
+    static Result run(int threads, int callsPerThread, Duration timeout, Call call,
+                      Class<? extends Exception>... expectedFailures) throws Exception {
+        return run(Executors.newFixedThreadPool(threads), threads, callsPerThread, timeout, call, expectedFailures);
+    }
+
+    @SafeVarargs
+    static Result runOnVirtualThreads(int threads, int callsPerThread, Duration timeout, Call call,
+                                      Class<? extends Exception>... expectedFailures) throws Exception {
+        return run(Executors.newVirtualThreadPerTaskExecutor(), threads, callsPerThread, timeout, call,
+                expectedFailures);
+    }
+
+    private static Result run(ExecutorService pool, int threads, int callsPerThread, Duration timeout, Call call,
+                              Class<? extends Exception>[] expectedFailures) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger successes = new AtomicInteger();
+        AtomicInteger failures = new AtomicInteger();
+        List<Future<?>> workers = new ArrayList<>(threads);
+        for (int t = 0; t < threads; t++) {
+            int thread = t;
+            workers.add(pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < callsPerThread; i++) {
+                    try {
+                        call.run(thread);
+                        successes.incrementAndGet();
+                    } catch (Exception e) {
+                        if (!isExpected(e, expectedFailures)) {
+                            throw e;
+                        }
+                        failures.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+        long began = System.nanoTime();
+        start.countDown();
+        pool.shutdown();
+        try {
+            assertThat(pool.awaitTermination(timeout.toMillis(), TimeUnit.MILLISECONDS))
+                    .as("calls finished within %s", timeout)
+                    .isTrue();
+            long elapsed = System.nanoTime() - began;
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+            return new Result(successes.get(), failures.get(), elapsed);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static boolean isExpected(Exception e, Class<? extends Exception>[] expectedFailures) {
+        for (Class<? extends Exception> expected : expectedFailures) {
+            if (expected.isInstance(e)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,63 @@
+package ee.enefit.store.integration;
+
+import ee.enefit.store.dto.ItemRequest;
+import ee.enefit.store.dto.ItemResponse;
+import ee.enefit.store.dto.ItemUpdateRequest;
+import ee.enefit.store.service.ItemService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ItemConditionalUpdateIntegrationTest extends AbstractPostgresIntegrationTest {
+
+    @Autowired
+    ItemService itemService;
+
+    @Test
+    void updateItem_appliesOnlyGivenFields_andBumpsVersion() {
+        ItemResponse created = itemService.createItem(
+                new ItemRequest("Cond-" + UUID.randomUUID(), 300L, 10));
+
+        ItemUpdateRequest update = new ItemUpdateRequest();
+        update.setQuantity(4);
+        update.setVersion(created.getVersion());
+
+        ItemResponse updated = itemService.updateItem(created.getId(), update).orElseThrow();
+
+        assertThat(updated.getName()).isEqualTo(created.getName());
+        assertThat(updated.getPriceCents()).isEqualTo(300L);
+        assertThat(updated.getQuantity()).isEqualTo(4);
+        assertThat(updated.getVersion()).isEqualTo(created.getVersion() + 1);
+    }
+
+    @Test
+    void updateItem_withStaleVersion_failsAndLeavesRowUntouched() {
+        ItemResponse created = itemService.createItem(
+                new ItemRequest("Cond-" + UUID.randomUUID(), 300L, 10));
+        itemService.sell(created.getId(), 1);
+
+        ItemUpdateRequest update = new ItemUpdateRequest();
+        update.setQuantity(100);
+        update.setVersion(created.getVersion());
+
+        assertThatThrownBy(() -> itemService.updateItem(created.getId(), update))
+                .isInstanceOf(OptimisticLockingFailureException.class);
+        assertThat(itemService.getItemById(created.getId())).get()
+                .extracting(ItemResponse::getQuantity)
+                .isEqualTo(9);
+    }
+
+    @Test
+    void updateItem_returnsEmpty_forUnknownItem() {
+        ItemUpdateRequest update = new ItemUpdateRequest();
+        update.setQuantity(1);
+        update.setVersion(1);
+
+        assertThat(itemService.updateItem(UUID.randomUUID(), update)).isEmpty();
+    }
+}
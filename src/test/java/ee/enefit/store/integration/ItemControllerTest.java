@@ -6,23 +6,30 @@ import static org.hamcrest.Matchers.is;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import ee.enefit.store.controller.ItemController;
+import ee.enefit.store.dto.ItemImportResult;
+import ee.enefit.store.dto.ItemPage;
+import ee.enefit.store.dto.ItemRequest;
 import ee.enefit.store.dto.ItemResponse;
 import ee.enefit.store.dto.ItemUpdateRequest;
 import ee.enefit.store.messaging.ItemSoldEvent;
+import ee.enefit.store.service.ItemImportService;
 import ee.enefit.store.service.ItemService;
-import java.math.BigDecimal;
+import ee.enefit.store.service.StockReservationService;
 import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
@@ -31,6 +38,8 @@ import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
@@ -39,6 +48,10 @@ import org.springframework.test.web.servlet.MockMvc;
 class ItemControllerTest {
     @MockitoBean
     private ItemService itemService;
+    @MockitoBean
+    private StockReservationService reservations;
+    @MockitoBean
+    private ItemImportService importService;
     @Autowired
     private MockMvc mockMvc;
     @Autowired
@@ -47,12 +60,13 @@ class ItemControllerTest {
     @Test
     void getItem_shouldReturn200_whenItemExists() throws Exception {
         UUID itemId = UUID.randomUUID();
-        ItemResponse mockItem = new ItemResponse(itemId, "Laptop", BigDecimal.valueOf(150), 1250);
+        ItemResponse mockItem = new ItemResponse(itemId, "Laptop", 15000L, 1250, 3);
         when(itemService.getItemById(itemId)).thenReturn(Optional.of(mockItem));
 
         var mvcResult = mockMvc.perform(get("/api/items/{id}", itemId)
                         .accept(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"3\""))
                 .andReturn();
 
         var body = objectMapper.readValue(
@@ -80,10 +94,10 @@ class ItemControllerTest {
         UUID id2 = UUID.randomUUID();
 
         List<ItemResponse> results = List.of(
-                new ItemResponse(id1, "Laptop",  new BigDecimal("150.00"), 5),
-                new ItemResponse(id2, "Lapdesk", new BigDecimal("20.00"),  8)
+                new ItemResponse(id1, "Laptop",  15000L, 5, 1),
+                new ItemResponse(id2, "Lapdesk", 2000L,  8, 1)
         );
-        when(itemService.searchByName(query)).thenReturn(results);
+        when(itemService.listItems(query, null, 50)).thenReturn(new ItemPage(results, null));
 
         mockMvc.perform(get("/api/items").param("name", query).accept(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
@@ -94,29 +108,70 @@ class ItemControllerTest {
                 .andExpect(jsonPath("$[0].quantity", is(5)))
                 .andExpect(jsonPath("$[1].id", is(id2.toString())))
                 .andExpect(jsonPath("$[1].name", is("Lapdesk")))
-                .andExpect(jsonPath("$[1].quantity", is(8)));
+                .andExpect(jsonPath("$[1].quantity", is(8)))
+                .andExpect(header().doesNotExist("X-Next-Cursor"));
 
-        verify(itemService).searchByName(query);
+        verify(itemService).listItems(query, null, 50);
     }
 
     @Test
     void getItemsByName_returns200_emptyArray_whenNoMatches() throws Exception {
         String query = "zzz";
-        when(itemService.searchByName(query)).thenReturn(List.of());
+        when(itemService.listItems(query, null, 50)).thenReturn(new ItemPage(List.of(), null));
 
         mockMvc.perform(get("/api/items").param("name", query).accept(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$", hasSize(0)));
 
-        verify(itemService).searchByName(query);
+        verify(itemService).listItems(query, null, 50);
+    }
+
+    @Test
+    void listItems_returnsNextCursorHeader_andCapsLimit() throws Exception {
+        UUID id = UUID.randomUUID();
+        List<ItemResponse> results = List.of(new ItemResponse(id, "Laptop", 15000L, 5, 1));
+        when(itemService.listItems(null, "abc", 200)).thenReturn(new ItemPage(results, "next"));
+
+        mockMvc.perform(get("/api/items")
+                        .param("cursor", "abc")
+                        .param("limit", "10000")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(header().string("X-Next-Cursor", "next"));
+
+        verify(itemService).listItems(null, "abc", 200);
+    }
+
+    @Test
+    void searchItems_returnsRankedResults_withCappedLimit() throws Exception {
+        UUID id = UUID.randomUUID();
+        when(itemService.searchByRelevance("lap", 200))
+                .thenReturn(List.of(new ItemResponse(id, "Laptop", 15000L, 5, 1)));
+
+        mockMvc.perform(get("/api/items/search").param("q", "lap").param("limit", "500")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].name", is("Laptop")));
+
+        verify(itemService).searchByRelevance("lap", 200);
+    }
+
+    @Test
+    void listItems_returns400_whenCursorInvalid() throws Exception {
+        when(itemService.listItems(null, "garbage", 50)).thenThrow(new IllegalArgumentException("Invalid cursor"));
+
+        mockMvc.perform(get("/api/items").param("cursor", "garbage").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
     }
 
     @Test
     void updateItem_returns200_andBody_whenUpdated() throws Exception {
         UUID id = UUID.randomUUID();
         ItemResponse updated =
-                new ItemResponse(id, "NewName", new BigDecimal("12.50"), 7);
+                new ItemResponse(id, "NewName", 1250L, 7, 1);
         when(itemService.updateItem(eq(id), any(ItemUpdateRequest.class)))
                 .thenReturn(Optional.of(updated));
         String payload = """
@@ -141,9 +196,75 @@ class ItemControllerTest {
         verify(itemService).updateItem(eq(id), captor.capture());
         ItemUpdateRequest arg = captor.getValue();
         assertEquals("NewName", arg.getName());
+        assertEquals(1250L, arg.getPriceCents());
         assertEquals(7, arg.getQuantity());
     }
 
+    @Test
+    void updateItem_usesIfMatchVersion_andReturnsNewETag() throws Exception {
+        UUID id = UUID.randomUUID();
+        when(itemService.updateItem(eq(id), any(ItemUpdateRequest.class)))
+                .thenReturn(Optional.of(new ItemResponse(id, "Pen", 199L, 40, 6)));
+
+        mockMvc.perform(put("/api/items/{id}", id)
+                        .header("If-Match", "\"5\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{ \"quantity\": 40, \"version\": 2 }"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"6\""));
+
+        ArgumentCaptor<ItemUpdateRequest> captor = ArgumentCaptor.forClass(ItemUpdateRequest.class);
+        verify(itemService).updateItem(eq(id), captor.capture());
+        assertEquals(5, captor.getValue().getVersion());
+    }
+
+    @Test
+    void updateItem_returns412_whenVersionIsStale() throws Exception {
+        UUID id = UUID.randomUUID();
+        when(itemService.updateItem(eq(id), any(ItemUpdateRequest.class)))
+                .thenThrow(new OptimisticLockingFailureException("stale"));
+
+        mockMvc.perform(put("/api/items/{id}", id)
+                        .header("If-Match", "\"1\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{ \"quantity\": 40 }"))
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    @Test
+    void updateItem_returns412_forWeakETag_withoutCallingService() throws Exception {
+        mockMvc.perform(put("/api/items/{id}", UUID.randomUUID())
+                        .header("If-Match", "W/\"1\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{ \"quantity\": 40 }"))
+                .andExpect(status().isPreconditionFailed());
+
+        verify(itemService, never()).updateItem(any(), any());
+    }
+
+    @Test
+    void updateItem_returns400_forInvalidFields_withoutCallingService() throws Exception {
+        for (String payload : List.of("{ \"quantity\": -1 }", "{ \"price\": 0 }", "{ \"name\": \"  \" }")) {
+            mockMvc.perform(put("/api/items/{id}", UUID.randomUUID())
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(payload))
+                    .andExpect(status().isBadRequest());
+        }
+
+        verify(itemService, never()).updateItem(any(), any());
+    }
+
+    @Test
+    void updateItem_returns412_forForeignETag_withoutCallingService() throws Exception {
+        mockMvc.perform(put("/api/items/{id}", UUID.randomUUID())
+                        .header("If-Match", "\"abc\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{ \"quantity\": 40 }"))
+                .andExpect(status().isPreconditionFailed());
+
+        verify(itemService, never()).updateItem(any(), any());
+    }
+
     @Test
     void updateItem_returns404_whenNotFound() throws Exception {
         UUID id = UUID.randomUUID();
@@ -161,6 +282,64 @@ class ItemControllerTest {
                 .andExpect(status().isNotFound());
     }
 
+    @Test
+    void updateItem_returns409_whenRenameHitsUniqueName() throws Exception {
+        UUID id = UUID.randomUUID();
+        when(itemService.updateItem(eq(id), any(ItemUpdateRequest.class)))
+                .thenThrow(new DuplicateKeyException("uk_items_name"));
+
+        mockMvc.perform(put("/api/items/{id}", id)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{ \"name\": \"Taken\" }"))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    void createItem_returns201_withoutLookingUpName() throws Exception {
+        UUID id = UUID.randomUUID();
+        when(itemService.createItem(any(ItemRequest.class)))
+                .thenReturn(new ItemResponse(id, "Pen", 199L, 50, 1));
+
+        mockMvc.perform(post("/api/items")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Pen\",\"price\":1.99,\"quantity\":50}"))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.id", is(id.toString())));
+
+        verify(itemService).createItem(any(ItemRequest.class));
+        verifyNoMoreInteractions(itemService);
+    }
+
+    @Test
+    void createItem_returns400_forInvalidFields_withoutCallingService() throws Exception {
+        for (String payload : List.of(
+                "{\"price\":1.99,\"quantity\":50}",
+                "{\"name\":\"\",\"price\":1.99,\"quantity\":50}",
+                "{\"name\":\"" + "x".repeat(256) + "\",\"price\":1.99,\"quantity\":50}",
+                "{\"name\":\"Pen\\u0000\",\"price\":1.99,\"quantity\":50}",
+                "{\"name\":\"Pen\",\"quantity\":50}",
+                "{\"name\":\"Pen\",\"price\":-1,\"quantity\":50}",
+                "{\"name\":\"Pen\",\"price\":1.99,\"quantity\":-1}")) {
+            mockMvc.perform(post("/api/items")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(payload))
+                    .andExpect(status().isBadRequest());
+        }
+
+        verify(itemService, never()).createItem(any());
+    }
+
+    @Test
+    void createItem_returns409_whenNameTaken() throws Exception {
+        when(itemService.createItem(any(ItemRequest.class)))
+                .thenThrow(new DuplicateKeyException("Item name already exists: Pen"));
+
+        mockMvc.perform(post("/api/items")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Pen\",\"price\":1.99,\"quantity\":50}"))
+                .andExpect(status().isConflict());
+    }
+
     @Test
     void deleteItem_returns204_whenDeleted() throws Exception {
         when(itemService.deleteItem(any(UUID.class))).thenReturn(true);
@@ -182,8 +361,8 @@ class ItemControllerTest {
     void itemSell_returnsOk_whenItemExists() throws Exception {
         UUID itemId = UUID.randomUUID();
         ItemSoldEvent evt = new ItemSoldEvent(
-                UUID.randomUUID(), itemId, 2, new BigDecimal("9.99"),
-                new BigDecimal("19.98"), Instant.now());
+                UUID.randomUUID(), itemId, 2, 999L,
+                1998L, Instant.now());
 
         when(itemService.sell(eq(itemId), eq(2)))
                 .thenReturn(evt);
@@ -191,6 +370,46 @@ class ItemControllerTest {
         mockMvc.perform(post("/api/items/{id}/sell", itemId)
                         .contentType(MediaType.APPLICATION_JSON)
                         .content("{\"quantity\":2}"))
-                .andExpect(status().isOk());
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.priceAtSale", is(9.99)))
+                .andExpect(jsonPath("$.total", is(19.98)));
+    }
+
+    @Test
+    void importItems_streamsCsvBody_andReturnsSummary() throws Exception {
+        ItemImportResult result = new ItemImportResult(3, 2, 0, 1,
+                List.of(new ItemImportResult.Problem(4, "Name already exists: Pen")));
+        when(importService.importItems(any(), eq(ItemImportService.Format.CSV))).thenReturn(result);
+
+        mockMvc.perform(post("/api/items/import")
+                        .contentType("text/csv")
+                        .content("name,price,quantity\nPen,1.99,10\nInk,4.50,5\nPen,2.00,1\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported", is(2)))
+                .andExpect(jsonPath("$.conflicts", is(1)))
+                .andExpect(jsonPath("$.problems[0].line", is(4)));
+    }
+
+    @Test
+    void importItems_selectsNdjsonByContentType() throws Exception {
+        when(importService.importItems(any(), eq(ItemImportService.Format.NDJSON)))
+                .thenReturn(new ItemImportResult(1, 1, 0, 0, List.of()));
+
+        mockMvc.perform(post("/api/items/import")
+                        .contentType("application/x-ndjson")
+                        .content("{\"name\":\"Pen\",\"price\":1.99,\"quantity\":10}\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported", is(1)));
+    }
+
+    @Test
+    void importItems_returns400_whenCsvHeaderIsUnusable() throws Exception {
+        when(importService.importItems(any(), eq(ItemImportService.Format.CSV)))
+                .thenThrow(new IllegalArgumentException("CSV header must name the columns name, price and quantity"));
+
+        mockMvc.perform(post("/api/items/import")
+                        .contentType("text/csv")
+                        .content("a,b\n1,2\n"))
+                .andExpect(status().isBadRequest());
     }
 }
@@ -0,0 +1,93 @@
+package ee.enefit.store.integration;
+
+import ee.enefit.store.dto.ItemImportResult;
+import ee.enefit.store.service.ItemImportService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Streams a generated CSV catalogue through the COPY import without ever holding it in memory.
+ * The size can be overridden with {@code -Dbenchmark.import.rows}.
+ */
+@Tag("benchmark")
+class ItemImportBenchmarkTest extends AbstractPostgresIntegrationTest {
+
+    private static final int ROWS = Integer.getInteger("benchmark.import.rows", 2_000_000);
+
+    @Autowired
+    ItemImportService importService;
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("delete from items where name like 'import-bench-%'");
+    }
+
+    @Test
+    void csvImport_throughput() {
+        long began = System.nanoTime();
+        ItemImportResult result = importService.importItems(new GeneratedCatalogue(ROWS), ItemImportService.Format.CSV);
+        double seconds = (System.nanoTime() - began) / 1e9;
+
+        System.out.printf("imported %d items in %.1f s: %.0f rows/s%n", result.imported(), seconds,
+                result.imported() / seconds);
+        assertThat(result.imported()).isEqualTo(ROWS);
+        assertThat(result.invalid()).isZero();
+        assertThat(result.conflicts()).isZero();
+    }
+
+    /** CSV body produced row by row as it is read. */
+    private static final class GeneratedCatalogue extends InputStream {
+        private final int rows;
+        private int next;
+        private byte[] current = "name,price,quantity\n".getBytes(StandardCharsets.UTF_8);
+        private int position;
+
+        private GeneratedCatalogue(int rows) {
+            this.rows = rows;
+        }
+
+        @Override
+        public int read() {
+            if (position == current.length && !advance()) {
+                return -1;
+            }
+            return current[position++] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) {
+            if (length == 0) {
+                return 0;
+            }
+            if (position == current.length && !advance()) {
+                return -1;
+            }
+            int n = Math.min(length, current.length - position);
+            System.arraycopy(current, position, buffer, offset, n);
+            position += n;
+            return n;
+        }
+
+        private boolean advance() {
+            if (next == rows) {
+                return false;
+            }
+            next++;
+            String price = BigDecimal.valueOf(next % 10_000 + 1, 2).toPlainString();
+            current = ("import-bench-" + next + "," + price + "," + next % 500 + "\n").getBytes(StandardCharsets.UTF_8);
+            position = 0;
+            return true;
+        }
+    }
+}
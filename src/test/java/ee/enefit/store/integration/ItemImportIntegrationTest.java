@@ -0,0 +1,114 @@
+package ee.enefit.store.integration;
+
+import ee.enefit.store.dto.ItemImportResult;
+import ee.enefit.store.dto.ItemImportResult.Problem;
+import ee.enefit.store.dto.ItemRequest;
+import ee.enefit.store.entity.ItemEntity;
+import ee.enefit.store.repository.ItemRepository;
+import ee.enefit.store.service.ItemImportService;
+import ee.enefit.store.service.ItemService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ItemImportIntegrationTest extends AbstractPostgresIntegrationTest {
+
+    @Autowired
+    ItemImportService importService;
+    @Autowired
+    ItemService itemService;
+    @Autowired
+    ItemRepository itemRepository;
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Test
+    void csvImport_insertsValidRows_andReportsInvalidAndConflictingOnes() {
+        String run = UUID.randomUUID().toString();
+        itemService.createItem(new ItemRequest("Existing-" + run, 100L, 1));
+        String csv = """
+                quantity,name,price
+                10,Imp-A-%1$s,1.99
+                1,Imp-B-%1$s,0
+                1,Imp-C-%1$s,abc
+                1,EXISTING-%1$s,2.00
+                1,imp-a-%1$s,3.00
+                2,"Imp, ""D""-%1$s",4.505
+                -1,Imp-E-%1$s,1.00
+
+                3,Imp-F-%1$s
+                """.formatted(run);
+
+        ItemImportResult result = importService.importItems(stream(csv), ItemImportService.Format.CSV);
+
+        assertThat(result.received()).isEqualTo(8);
+        assertThat(result.imported()).isEqualTo(2);
+        assertThat(result.invalid()).isEqualTo(4);
+        assertThat(result.conflicts()).isEqualTo(2);
+        assertThat(result.problems()).extracting(Problem::line).containsExactly(3L, 4L, 5L, 6L, 8L, 10L);
+        assertThat(result.problems().get(2).reason()).contains("already exists");
+
+        assertThat(findByName("Imp-A-" + run)).get()
+                .satisfies(item -> {
+                    assertThat(item.getPriceCents()).isEqualTo(199L);
+                    assertThat(item.getQuantity()).isEqualTo(10);
+                    assertThat(item.getVersion()).isEqualTo(1);
+                    assertThat(item.getId().version()).isEqualTo(7);
+                });
+        assertThat(findByName("Imp, \"D\"-" + run)).get()
+                .satisfies(item -> assertThat(item.getPriceCents()).isEqualTo(451L));
+        assertThat(findByName("Existing-" + run)).get()
+                .satisfies(item -> assertThat(item.getPriceCents()).isEqualTo(100L));
+    }
+
+    @Test
+    void ndjsonImport_readsItemObjectsPerLine() {
+        String run = UUID.randomUUID().toString();
+        String ndjson = """
+                {"name":"Nd-A-%1$s","price":2.50,"quantity":4}
+                {"name":"Nd-B-%1$s","price":"1.00"}
+                not json
+                {"name":"","price":1.00,"quantity":1}
+                """.formatted(run);
+
+        ItemImportResult result = importService.importItems(stream(ndjson), ItemImportService.Format.NDJSON);
+
+        assertThat(result.received()).isEqualTo(4);
+        assertThat(result.imported()).isEqualTo(2);
+        assertThat(result.invalid()).isEqualTo(2);
+        assertThat(result.problems()).extracting(Problem::line).containsExactly(3L, 4L);
+        assertThat(findByName("Nd-A-" + run)).get()
+                .satisfies(item -> assertThat(item.getPriceCents()).isEqualTo(250L));
+        assertThat(findByName("Nd-B-" + run)).get()
+                .satisfies(item -> assertThat(item.getQuantity()).isZero());
+    }
+
+    @Test
+    void csvImport_withoutRequiredColumns_importsNothing() {
+        String run = UUID.randomUUID().toString();
+
+        assertThatThrownBy(() -> importService.importItems(stream("title,price\nBad-" + run + ",1.00\n"),
+                ItemImportService.Format.CSV))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(findByName("Bad-" + run)).isEmpty();
+    }
+
+    private Optional<ItemEntity> findByName(String name) {
+        return jdbcTemplate.queryForList("select id from items where lower(name) = lower(?)", UUID.class, name)
+                .stream()
+                .findFirst()
+                .flatMap(itemRepository::findById);
+    }
+
+    private static ByteArrayInputStream stream(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+}
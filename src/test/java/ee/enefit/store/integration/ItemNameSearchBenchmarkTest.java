@@ -0,0 +1,68 @@
+package ee.enefit.store.integration;
+
+import ee.enefit.store.entity.ItemEntity;
+import ee.enefit.store.repository.ItemRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Tag("benchmark")
+class ItemNameSearchBenchmarkTest extends AbstractPostgresIntegrationTest {
+
+    private static final int CATALOGUE_SIZE = 3_000_000;
+    private static final int RUNS = 20;
+    private static final List<String> QUERIES = List.of("a1b2", "ffe0", "9c3d", "beef", "0042");
+
+    @Autowired
+    ItemRepository itemRepository;
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_items_name_trgm ON items USING gin (name gin_trgm_ops)");
+        jdbcTemplate.update("delete from items where name like 'trgm-bench-%'");
+    }
+
+    @Test
+    void substringSearch_trigramIndexVersusSequentialScan() {
+        jdbcTemplate.update("""
+                insert into items (id, name, price_cents, quantity, version)
+                select gen_random_uuid(), 'trgm-bench-' || md5(g::text), 100, 1, 1
+                from generate_series(1, ?) g
+                """, CATALOGUE_SIZE);
+        jdbcTemplate.execute("analyze items");
+
+        double indexedMillis = timeSearches();
+        List<ItemEntity> indexedHits = itemRepository.searchBySimilarity("%beef%", "beef", 20);
+
+        jdbcTemplate.execute("DROP INDEX idx_items_name_trgm");
+        jdbcTemplate.execute("analyze items");
+        double scanMillis = timeSearches();
+        List<ItemEntity> scanHits = itemRepository.searchBySimilarity("%beef%", "beef", 20);
+
+        System.out.printf("name search over %d items: trigram index %.2f ms/query, sequential scan %.2f ms/query%n",
+                CATALOGUE_SIZE, indexedMillis, scanMillis);
+
+        assertThat(indexedHits).extracting(ItemEntity::getId)
+                .containsExactlyElementsOf(scanHits.stream().map(ItemEntity::getId).toList());
+        assertThat(indexedMillis).isLessThan(scanMillis);
+    }
+
+    private double timeSearches() {
+        QUERIES.forEach(q -> itemRepository.searchBySimilarity("%" + q + "%", q, 20));
+        long began = System.nanoTime();
+        for (int run = 0; run < RUNS; run++) {
+            for (String q : QUERIES) {
+                itemRepository.searchBySimilarity("%" + q + "%", q, 20);
+            }
+        }
+        return (System.nanoTime() - began) / 1_000_000d / (RUNS * QUERIES.size());
+    }
+}
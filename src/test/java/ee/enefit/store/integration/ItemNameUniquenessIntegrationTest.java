@@ -0,0 +1,48 @@
+package ee.enefit.store.integration;
+
+import ee.enefit.store.dto.ItemRequest;
+import ee.enefit.store.dto.ItemResponse;
+import ee.enefit.store.dto.ItemUpdateRequest;
+import ee.enefit.store.service.ItemService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ItemNameUniquenessIntegrationTest extends AbstractPostgresIntegrationTest {
+
+    @Autowired
+    ItemService itemService;
+
+    @Test
+    void createItem_rejectsNameDifferingOnlyInCase() {
+        String name = "Unique-" + UUID.randomUUID();
+        ItemResponse first = itemService.createItem(new ItemRequest(name, 100L, 1));
+
+        assertThatThrownBy(() -> itemService.createItem(new ItemRequest(name.toUpperCase(), 200L, 2)))
+                .isInstanceOf(DuplicateKeyException.class);
+        assertThat(itemService.getItemById(first.getId())).get()
+                .extracting(ItemResponse::getPriceCents)
+                .isEqualTo(100L);
+    }
+
+    @Test
+    void updateItem_renameOntoTakenName_failsOnUniqueIndex_andLeavesRowUntouched() {
+        String taken = "Taken-" + UUID.randomUUID();
+        itemService.createItem(new ItemRequest(taken, 100L, 1));
+        ItemResponse other = itemService.createItem(new ItemRequest("Other-" + UUID.randomUUID(), 100L, 1));
+
+        ItemUpdateRequest rename = new ItemUpdateRequest();
+        rename.setName(taken.toLowerCase());
+
+        assertThatThrownBy(() -> itemService.updateItem(other.getId(), rename))
+                .isInstanceOf(DuplicateKeyException.class);
+        assertThat(itemService.getItemById(other.getId())).get()
+                .extracting(ItemResponse::getName)
+                .isEqualTo(other.getName());
+    }
+}
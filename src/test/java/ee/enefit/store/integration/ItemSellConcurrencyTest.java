@@ -0,0 +1,73 @@
+package ee.enefit.store.integration;
+
+import ee.enefit.store.dto.ItemRequest;
+import ee.enefit.store.repository.ItemRepository;
+import ee.enefit.store.service.ItemService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import java.time.Duration;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ItemSellConcurrencyTest extends AbstractPostgresIntegrationTest {
+
+    private static final int THREADS = 16;
+    private static final int SELLS_PER_THREAD = 50;
+    private static final int STOCK = THREADS * SELLS_PER_THREAD;
+
+    @Autowired
+    ItemService itemService;
+    @Autowired
+    ItemRepository itemRepository;
+
+    @Test
+    void atomicSell_neverConflicts_onHotItem() throws Exception {
+        UUID itemId = createItem(STOCK);
+
+        Hammer.Result result = hammer(() -> itemService.sell(itemId, 1));
+
+        assertThat(result.failures()).isZero();
+        assertThat(result.successes()).isEqualTo(STOCK);
+        assertThat(quantityOf(itemId)).isEqualTo(STOCK - result.successes());
+    }
+
+    @Test
+    void atomicSell_neverOversells_whenDemandExceedsStock() throws Exception {
+        UUID itemId = createItem(STOCK / 2);
+
+        Hammer.Result result = hammer(() -> itemService.sell(itemId, 1));
+
+        assertThat(result.successes()).isEqualTo(STOCK / 2);
+        assertThat(quantityOf(itemId)).isEqualTo(STOCK / 2 - result.successes());
+    }
+
+    @Test
+    void sell_distinguishesOutOfStockFromUnknownItem() {
+        UUID itemId = createItem(1);
+
+        assertThatThrownBy(() -> itemService.sell(itemId, 2))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Insufficient stock");
+        assertThatThrownBy(() -> itemService.sell(UUID.randomUUID(), 1))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Item not found");
+    }
+
+    private Hammer.Result hammer(Runnable sell) throws Exception {
+        return Hammer.run(THREADS, SELLS_PER_THREAD, Duration.ofMinutes(2), thread -> sell.run(),
+                OptimisticLockingFailureException.class, IllegalArgumentException.class);
+    }
+
+    private UUID createItem(int quantity) {
+        ItemRequest request = new ItemRequest("hot-" + UUID.randomUUID(), 100L, quantity);
+        return itemService.createItem(request).getId();
+    }
+
+    private int quantityOf(UUID itemId) {
+        return itemRepository.findQuantityById(itemId).orElseThrow();
+    }
+}
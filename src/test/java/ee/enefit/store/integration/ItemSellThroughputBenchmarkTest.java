@@ -0,0 +1,69 @@
+package ee.enefit.store.integration;
+
+import ee.enefit.store.dto.ItemRequest;
+import ee.enefit.store.entity.ItemEntity;
+import ee.enefit.store.repository.ItemRepository;
+import ee.enefit.store.service.ItemService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Hot-item sells through the atomic conditional update versus the read-modify-write path it replaced.
+ */
+@Tag("benchmark")
+class ItemSellThroughputBenchmarkTest extends AbstractPostgresIntegrationTest {
+
+    private static final int THREADS = 16;
+    private static final int SELLS_PER_THREAD = 50;
+    private static final int STOCK = THREADS * SELLS_PER_THREAD;
+
+    @Autowired
+    ItemService itemService;
+    @Autowired
+    ItemRepository itemRepository;
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @Test
+    void atomicSell_sellsFasterThanReadModifyWrite_onHotItem() throws Exception {
+        UUID atomicItem = createItem();
+        UUID legacyItem = createItem();
+
+        Hammer.Result legacy = hammer(() -> readModifyWriteSell(legacyItem, 1));
+        Hammer.Result atomic = hammer(() -> itemService.sell(atomicItem, 1));
+
+        System.out.printf("hot item, %d threads: read-modify-write %.0f sells/s (%d conflicts), atomic %.0f sells/s%n",
+                THREADS, legacy.successesPerSecond(), legacy.failures(), atomic.successesPerSecond());
+        assertThat(atomic.successesPerSecond()).isGreaterThan(legacy.successesPerSecond());
+    }
+
+    /** The pre-existing sell path: load the entity, check in Java, flush with an optimistic version check. */
+    private void readModifyWriteSell(UUID itemId, int quantity) {
+        transactionTemplate.executeWithoutResult(status -> {
+            ItemEntity item = itemRepository.findById(itemId).orElseThrow();
+            if (item.getQuantity() < quantity) {
+                throw new IllegalArgumentException("Insufficient stock");
+            }
+            item.setQuantity(item.getQuantity() - quantity);
+            itemRepository.saveAndFlush(item);
+        });
+    }
+
+    private Hammer.Result hammer(Runnable sell) throws Exception {
+        return Hammer.run(THREADS, SELLS_PER_THREAD, Duration.ofMinutes(2), thread -> sell.run(),
+                OptimisticLockingFailureException.class, IllegalArgumentException.class);
+    }
+
+    private UUID createItem() {
+        ItemRequest request = new ItemRequest("hot-" + UUID.randomUUID(), 100L, STOCK);
+        return itemService.createItem(request).getId();
+    }
+}
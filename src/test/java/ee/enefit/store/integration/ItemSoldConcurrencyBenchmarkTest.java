@@ -0,0 +1,91 @@
+package ee.enefit.store.integration;
+
+import ee.enefit.store.dto.ItemRequest;
+import ee.enefit.store.messaging.ItemSoldEvent;
+import ee.enefit.store.repository.SaleRepository;
+import ee.enefit.store.service.ItemService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.ConcurrentMessageListenerContainer;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Drains the same load with one and with four listener threads on a four-partition topic.
+ */
+@Tag("benchmark")
+@EmbeddedKafka(partitions = 4, topics = "items.sold.v1")
+@TestPropertySource(properties = {
+        "spring.kafka.bootstrap-servers=${spring.embedded.kafka.brokers}",
+        "spring.kafka.listener.auto-startup=true",
+        "spring.kafka.consumer.auto-offset-reset=earliest",
+        "app.topics.items-sold-partitions=4"
+})
+class ItemSoldConcurrencyBenchmarkTest extends AbstractPostgresIntegrationTest {
+
+    private static final int EVENTS = 40_000;
+    private static final int ITEMS = 64;
+
+    @Autowired
+    KafkaListenerEndpointRegistry registry;
+    @Autowired
+    KafkaTemplate<String, ItemSoldEvent> kafkaTemplate;
+    @Autowired
+    SaleRepository saleRepository;
+    @Autowired
+    ItemService itemService;
+    @Value("${app.topics.items-sold}")
+    String topic;
+
+    @Test
+    void ingestionThroughput_growsWithListenerConcurrency() throws Exception {
+        List<UUID> items = new ArrayList<>();
+        for (int i = 0; i < ITEMS; i++) {
+            items.add(itemService.createItem(
+                    new ItemRequest("partitioned-" + UUID.randomUUID(), 100L, 1)).getId());
+        }
+
+        double single = drainWithConcurrency(1, items);
+        double parallel = drainWithConcurrency(4, items);
+
+        System.out.printf("%d events over 4 partitions: 1 consumer %.0f events/s, 4 consumers %.0f events/s%n",
+                EVENTS, single, parallel);
+        assertThat(parallel).isGreaterThan(single);
+    }
+
+    private double drainWithConcurrency(int concurrency, List<UUID> items) throws InterruptedException {
+        ConcurrentMessageListenerContainer<?, ?> container =
+                (ConcurrentMessageListenerContainer<?, ?>) registry.getListenerContainer("itemsSoldConsumer");
+        container.stop();
+        container.setConcurrency(concurrency);
+
+        long target = saleRepository.count() + EVENTS;
+        for (int i = 0; i < EVENTS; i++) {
+            UUID itemId = items.get(i % items.size());
+            kafkaTemplate.send(topic, itemId.toString(), new ItemSoldEvent(UUID.randomUUID(), itemId, 1,
+                    100L, 100L, Instant.now()));
+        }
+        kafkaTemplate.flush();
+
+        long began = System.nanoTime();
+        container.start();
+        long deadline = began + TimeUnit.MINUTES.toNanos(5);
+        while (saleRepository.count() < target) {
+            assertThat(System.nanoTime()).as("events drained in time").isLessThan(deadline);
+            Thread.sleep(20);
+        }
+        return EVENTS * 1e9 / (System.nanoTime() - began);
+    }
+}
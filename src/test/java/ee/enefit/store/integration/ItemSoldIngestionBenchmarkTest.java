@@ -0,0 +1,105 @@
+package ee.enefit.store.integration;
+
+import ee.enefit.store.dto.ItemRequest;
+import ee.enefit.store.entity.SaleEntity;
+import ee.enefit.store.messaging.ItemSoldEvent;
+import ee.enefit.store.repository.SaleRepository;
+import ee.enefit.store.service.ItemService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Import;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Drains the same number of events through the batch listener and through the previous
+ * per-record handler (findById + save per event) and compares the time to persist them all.
+ */
+@Tag("benchmark")
+@EmbeddedKafka(partitions = 1, topics = {"items.sold.v1", ItemSoldIngestionBenchmarkTest.PER_RECORD_TOPIC})
+@TestPropertySource(properties = {
+        "spring.kafka.bootstrap-servers=${spring.embedded.kafka.brokers}",
+        "spring.kafka.listener.auto-startup=true",
+        "spring.kafka.consumer.auto-offset-reset=earliest"
+})
+@Import(ItemSoldIngestionBenchmarkTest.PerRecordConsumer.class)
+class ItemSoldIngestionBenchmarkTest extends AbstractPostgresIntegrationTest {
+
+    static final String PER_RECORD_TOPIC = "items.sold.per-record";
+    private static final int EVENTS = 20_000;
+
+    @Autowired
+    KafkaTemplate<String, ItemSoldEvent> kafkaTemplate;
+    @Autowired
+    SaleRepository saleRepository;
+    @Autowired
+    ItemService itemService;
+    @Value("${app.topics.items-sold}")
+    String batchTopic;
+
+    @Test
+    void batchListener_persistsFasterThanPerRecordHandler() throws Exception {
+        UUID itemId = itemService.createItem(
+                new ItemRequest("ingest-" + UUID.randomUUID(), 125L, 1)).getId();
+
+        long perRecordNanos = publishAndAwait(PER_RECORD_TOPIC, itemId);
+        long batchNanos = publishAndAwait(batchTopic, itemId);
+
+        System.out.printf("%d events: per-record %.0f events/s, batch %.0f events/s%n", EVENTS,
+                EVENTS * 1e9 / perRecordNanos, EVENTS * 1e9 / batchNanos);
+        assertThat(batchNanos).isLessThan(perRecordNanos);
+    }
+
+    private long publishAndAwait(String topic, UUID itemId) throws InterruptedException {
+        long target = saleRepository.count() + EVENTS;
+        long began = System.nanoTime();
+        for (int i = 0; i < EVENTS; i++) {
+            kafkaTemplate.send(topic, itemId.toString(), new ItemSoldEvent(UUID.randomUUID(), itemId, 1,
+                    125L, 125L, Instant.now()));
+        }
+        kafkaTemplate.flush();
+        long deadline = began + TimeUnit.MINUTES.toNanos(5);
+        while (saleRepository.count() < target) {
+            assertThat(System.nanoTime()).as("events drained in time").isLessThan(deadline);
+            Thread.sleep(20);
+        }
+        return System.nanoTime() - began;
+    }
+
+    /** The consumer as it was before batching: one lookup and one save per record, each in its own transaction. */
+    static class PerRecordConsumer {
+
+        private final SaleRepository saleRepository;
+
+        PerRecordConsumer(SaleRepository saleRepository) {
+            this.saleRepository = saleRepository;
+        }
+
+        @KafkaListener(topics = PER_RECORD_TOPIC, groupId = "per-record-baseline")
+        @Transactional
+        public void handle(ItemSoldEvent event) {
+            if (saleRepository.findById(event.saleId()).isPresent()) {
+                return;
+            }
+            saleRepository.save(SaleEntity.builder()
+                    .id(event.saleId())
+                    .itemId(event.itemId())
+                    .quantity(event.quantity())
+                    .priceAtSaleCents(event.priceAtSaleCents())
+                    .totalCents(event.totalCents())
+                    .soldAt(event.soldAt())
+                    .build());
+        }
+    }
+}
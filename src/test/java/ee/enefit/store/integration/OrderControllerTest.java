@@ -0,0 +1,38 @@
+package ee.enefit.store.integration;
+
+import ee.enefit.store.controller.OrderController;
+import ee.enefit.store.service.OrderService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.UUID;
+
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(controllers = OrderController.class)
+class OrderControllerTest {
+    @MockitoBean
+    private OrderService orderService;
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void checkout_rejectsLineQuantityAboveTheCap() throws Exception {
+        String body = """
+                {"lines":[{"itemId":"%1$s","quantity":2147483647},{"itemId":"%1$s","quantity":1}]}
+                """.formatted(UUID.randomUUID());
+
+        mockMvc.perform(post("/api/orders/checkout")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(orderService);
+    }
+}
@@ -0,0 +1,157 @@
+package ee.enefit.store.integration;
+
+import ee.enefit.store.config.ReplicaLagMonitor;
+import ee.enefit.store.dto.ItemRequest;
+import ee.enefit.store.dto.ItemResponse;
+import ee.enefit.store.dto.ItemUpdateRequest;
+import ee.enefit.store.dto.StockLevelViewDto;
+import ee.enefit.store.service.ItemService;
+import ee.enefit.store.service.ReportService;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Runs against a second Postgres container standing in for the read replica. It is migrated separately and
+ * does not replicate, so a row inserted only there shows which server answered. Its lag is read from a table
+ * the test controls, and lag checks are driven by the test.
+ */
+@TestPropertySource(properties = {
+        "app.datasource.replica.enabled=true",
+        "app.datasource.replica.lag-query=select seconds from replica_lag",
+        "app.datasource.replica.max-lag-ms=2000",
+        "app.datasource.replica.lag-check-interval-ms=3600000"
+})
+class ReplicaRoutingIntegrationTest extends AbstractPostgresIntegrationTest {
+
+    static final PostgreSQLContainer<?> REPLICA = new PostgreSQLContainer<>("postgres:16");
+
+    @DynamicPropertySource
+    static void replicaProperties(DynamicPropertyRegistry registry) {
+        REPLICA.start();
+        Flyway.configure()
+                .dataSource(REPLICA.getJdbcUrl(), REPLICA.getUsername(), REPLICA.getPassword())
+                .locations("classpath:db/migration")
+                .load()
+                .migrate();
+        registry.add("app.datasource.replica.url", REPLICA::getJdbcUrl);
+        registry.add("app.datasource.replica.username", REPLICA::getUsername);
+        registry.add("app.datasource.replica.password", REPLICA::getPassword);
+    }
+
+    @Autowired
+    ReportService reportService;
+    @Autowired
+    ItemService itemService;
+    @Autowired
+    ReplicaLagMonitor lagMonitor;
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+    @Autowired
+    @Qualifier("replicaDataSource")
+    DataSource replicaDataSource;
+
+    JdbcTemplate replica;
+
+    @BeforeEach
+    void replicaInSync() {
+        replica = new JdbcTemplate(replicaDataSource);
+        replica.execute("create table if not exists replica_lag (seconds double precision not null)");
+        replica.update("delete from replica_lag");
+        replica.update("insert into replica_lag values (0)");
+        lagMonitor.check();
+    }
+
+    @Test
+    void readOnlyQueries_areServedByTheReplica_whileWritesGoToThePrimary() {
+        String replicaOnly = insertOnReplica("replica-only-" + UUID.randomUUID());
+        ItemResponse written = itemService.createItem(new ItemRequest("primary-" + UUID.randomUUID(), 100L, 1));
+
+        assertThat(lagMonitor.isReplicaUsable()).isTrue();
+        assertThat(stockNames()).contains(replicaOnly).doesNotContain(written.getName());
+        assertThat(itemService.searchByRelevance(replicaOnly, 5))
+                .extracting(ItemResponse::getName)
+                .containsExactly(replicaOnly);
+        assertThat(itemService.listItems(written.getName(), null, 5).items()).isEmpty();
+
+        assertThat(jdbcTemplate.queryForObject("select count(*) from items where name = ?", Long.class,
+                written.getName())).isEqualTo(1L);
+        assertThat(replica.queryForObject("select count(*) from items where name = ?", Long.class,
+                written.getName())).isZero();
+    }
+
+    @Test
+    void cachedItemLookups_stayOnThePrimary() {
+        ItemResponse written = itemService.createItem(new ItemRequest("cached-" + UUID.randomUUID(), 100L, 1));
+        replica.update("insert into items (id, name, price_cents, quantity) values (?, ?, 999, 1)",
+                written.getId(), written.getName());
+
+        assertThat(lagMonitor.isReplicaUsable()).isTrue();
+        assertThat(itemService.getItemById(written.getId())).get()
+                .satisfies(item -> assertThat(item.getPriceCents()).isEqualTo(100L));
+    }
+
+    @Test
+    void staleVersionUpdate_checksExistenceOnThePrimary() {
+        ItemResponse written = itemService.createItem(new ItemRequest("versioned-" + UUID.randomUUID(), 100L, 1));
+        ItemUpdateRequest update = new ItemUpdateRequest();
+        update.setQuantity(5);
+        update.setVersion(written.getVersion() + 1);
+
+        assertThatThrownBy(() -> itemService.updateItem(written.getId(), update))
+                .isInstanceOf(OptimisticLockingFailureException.class);
+    }
+
+    @Test
+    void laggingReplica_fallsBackToThePrimary() {
+        String replicaOnly = insertOnReplica("replica-lagging-" + UUID.randomUUID());
+        ItemResponse written = itemService.createItem(new ItemRequest("primary-" + UUID.randomUUID(), 100L, 1));
+        replica.update("update replica_lag set seconds = 30");
+
+        lagMonitor.check();
+
+        assertThat(lagMonitor.isReplicaUsable()).isFalse();
+        assertThat(stockNames()).contains(written.getName()).doesNotContain(replicaOnly);
+
+        replica.update("update replica_lag set seconds = 0.5");
+        lagMonitor.check();
+
+        assertThat(stockNames()).contains(replicaOnly).doesNotContain(written.getName());
+    }
+
+    @Test
+    void failingLagCheck_fallsBackToThePrimary() {
+        ItemResponse written = itemService.createItem(new ItemRequest("primary-" + UUID.randomUUID(), 100L, 1));
+        replica.execute("drop table replica_lag");
+
+        lagMonitor.check();
+
+        assertThat(lagMonitor.isReplicaUsable()).isFalse();
+        assertThat(stockNames()).contains(written.getName());
+    }
+
+    private String insertOnReplica(String name) {
+        replica.update("insert into items (id, name, price_cents, quantity) values (?, ?, 100, 1)",
+                UUID.randomUUID(), name);
+        return name;
+    }
+
+    private List<String> stockNames() {
+        return reportService.getCurrentStockLevels().stream().map(StockLevelViewDto::name).toList();
+    }
+}
@@ -4,27 +4,40 @@ import ee.enefit.store.controller.ReportController;
 import ee.enefit.store.dto.SoldItemAggregateDto;
 import ee.enefit.store.dto.StockLevelViewDto;
 import ee.enefit.store.service.ReportService;
-;
+import ee.enefit.store.service.SalesExportService;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
-import java.math.BigDecimal;
+import java.io.ByteArrayInputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.time.ZoneOffset;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
+import java.util.zip.GZIPInputStream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 
@@ -32,6 +45,8 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 class ReportControllerTest {
     @MockitoBean
     private ReportService reportService;
+    @MockitoBean
+    private SalesExportService salesExportService;
     @Autowired
     private MockMvc mockMvc;
 
@@ -41,8 +56,8 @@ class ReportControllerTest {
         UUID id2 = UUID.randomUUID();
 
         List<StockLevelViewDto> mockData = List.of(
-                new StockLevelViewDto(id1, "Apple", new BigDecimal("1.99"), 10, Instant.parse("2025-09-10T12:00:00Z")),
-                new StockLevelViewDto(id2, "Banana", new BigDecimal("2.49"), 0,  Instant.parse("2025-09-11T12:00:00Z"))
+                new StockLevelViewDto(id1, "Apple", 199L, 10, Instant.parse("2025-09-10T12:00:00Z")),
+                new StockLevelViewDto(id2, "Banana", 249L, 0,  Instant.parse("2025-09-11T12:00:00Z"))
         );
 
         when(reportService.getCurrentStockLevels()).thenReturn(mockData);
@@ -57,6 +72,35 @@ class ReportControllerTest {
                 .andExpect(jsonPath("$[1].stockQuantity").value(0));
     }
 
+    @Test
+    void streamStockLevels_writesNdjson_pageByPage() throws Exception {
+        List<StockLevelViewDto> firstPage = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            firstPage.add(new StockLevelViewDto(UUID.randomUUID(), String.format("Item%03d", i),
+                    100L, i, Instant.parse("2025-09-10T12:00:00Z")));
+        }
+        StockLevelViewDto last = new StockLevelViewDto(UUID.randomUUID(), "Zucchini",
+                99L, 3, Instant.parse("2025-09-11T12:00:00Z"));
+        when(reportService.getStockLevelsPage(null, 500)).thenReturn(firstPage);
+        when(reportService.getStockLevelsPage("Item499", 500)).thenReturn(List.of(last));
+
+        MvcResult started = mockMvc.perform(get("/api/reports/stock/stream"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String body = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        String[] lines = body.split("\n");
+        assertEquals(501, lines.length);
+        assertTrue(lines[0].contains("\"name\":\"Item000\""));
+        assertTrue(lines[500].contains("\"name\":\"Zucchini\""));
+        verify(reportService).getStockLevelsPage("Item499", 500);
+    }
+
     @Test
     void getSoldItemsSummary_withoutDates_returnsOk_andPassesNulls() throws Exception {
         when(reportService.getSoldItemsSummary(null, null)).thenReturn(List.of());
@@ -74,7 +118,7 @@ class ReportControllerTest {
         UUID itemId = UUID.randomUUID();
         Instant lastSoldAt = Instant.parse("2025-09-12T10:00:00Z");
         List<SoldItemAggregateDto> mock = List.of(
-                new SoldItemAggregateDto(itemId, "Pen", 5L, new BigDecimal("9.95"), lastSoldAt)
+                new SoldItemAggregateDto(itemId, "Pen", 5L, 995L, lastSoldAt)
         );
         when(reportService.getSoldItemsSummary(any(), any())).thenReturn(mock);
 
@@ -104,4 +148,72 @@ class ReportControllerTest {
         assertEquals(expectedFrom, fromCap.getValue());
         assertEquals(expectedTo, toCap.getValue());
     }
+
+    @Test
+    void exportSales_streamsCsv_forWholeUtcDays() throws Exception {
+        doAnswer(inv -> {
+            OutputStream out = inv.getArgument(3);
+            out.write("sale_id,sold_at\n".getBytes(StandardCharsets.UTF_8));
+            return 1L;
+        }).when(salesExportService).exportSales(any(), any(), any(), any());
+
+        MvcResult started = mockMvc.perform(get("/api/reports/sales/export")
+                        .param("from", "2025-09-01")
+                        .param("to", "2025-09-14")
+                        .header("Accept-Encoding", "gzip;q=0, identity"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String body = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("text/csv"))
+                .andExpect(header().doesNotExist("Content-Encoding"))
+                .andExpect(header().string("Content-Disposition",
+                        "attachment; filename=\"sales_from_2025-09-01_to_2025-09-14.csv\""))
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        assertEquals("sale_id,sold_at\n", body);
+        verify(salesExportService).exportSales(eq(Instant.parse("2025-09-01T00:00:00Z")),
+                eq(Instant.parse("2025-09-15T00:00:00Z")), eq(SalesExportService.Format.CSV), any());
+    }
+
+    @Test
+    void exportSales_gzipsNdjson_whenClientAcceptsIt() throws Exception {
+        doAnswer(inv -> {
+            OutputStream out = inv.getArgument(3);
+            out.write("{\"saleId\":\"x\"}\n".getBytes(StandardCharsets.UTF_8));
+            return 1L;
+        }).when(salesExportService).exportSales(any(), any(), any(), any());
+
+        MvcResult started = mockMvc.perform(get("/api/reports/sales/export")
+                        .param("format", "ndjson")
+                        .header("Accept-Encoding", "br;q=1.0, gzip;q=0.8"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        byte[] body = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andReturn()
+                .getResponse()
+                .getContentAsByteArray();
+
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            assertEquals("{\"saleId\":\"x\"}\n", new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+        verify(salesExportService).exportSales(eq(Instant.EPOCH), any(), eq(SalesExportService.Format.NDJSON), any());
+    }
+
+    @Test
+    void exportSales_rejectsUnknownFormatAndInvertedRange() throws Exception {
+        mockMvc.perform(get("/api/reports/sales/export").param("format", "xlsx"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/reports/sales/export")
+                        .param("from", "2025-09-14")
+                        .param("to", "2025-09-01"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(salesExportService);
+    }
 }
@@ -0,0 +1,115 @@
+package ee.enefit.store.integration;
+
+import ee.enefit.store.entity.UuidV7;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Preloads a sales-shaped table with tens of millions of rows keyed by random (v4) or time-ordered (v7) UUIDs,
+ * then measures batched insert throughput, WAL written and primary-key index size for another slice of sales.
+ * Sizes can be overridden with {@code -Dbenchmark.sales.preloaded} and {@code -Dbenchmark.sales.measured}.
+ */
+@Tag("benchmark")
+class SaleIdOrderingBenchmarkTest extends AbstractPostgresIntegrationTest {
+
+    private static final int PRELOADED = Integer.getInteger("benchmark.sales.preloaded", 20_000_000);
+    private static final int MEASURED = Integer.getInteger("benchmark.sales.measured", 1_000_000);
+    private static final int BATCH = 1_000;
+    private static final UUID ITEM_ID = UUID.randomUUID();
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void createV7Function() {
+        // generates v7 ids for the preload; sets the version nibble of a random v4 uuid to 0111
+        jdbcTemplate.execute("""
+                create or replace function bench_uuid_v7(ts timestamptz) returns uuid
+                language sql volatile as $$
+                    select encode(set_bit(set_bit(overlay(uuid_send(gen_random_uuid())
+                           placing substring(int8send((extract(epoch from ts) * 1000)::bigint) from 3)
+                           from 1 for 6), 52, 1), 53, 1), 'hex')::uuid
+                $$
+                """);
+    }
+
+    @AfterEach
+    void dropTables() {
+        jdbcTemplate.execute("drop table if exists bench_sales_v4");
+        jdbcTemplate.execute("drop table if exists bench_sales_v7");
+        jdbcTemplate.execute("drop function if exists bench_uuid_v7(timestamptz)");
+    }
+
+    @Test
+    void salesInserts_timeOrderedIdsVersusRandomIds() {
+        Result random = run("bench_sales_v4", "gen_random_uuid()", UUID::randomUUID);
+        Result ordered = run("bench_sales_v7",
+                "bench_uuid_v7(timestamptz '2025-01-01 00:00:00+00' + g * interval '100 microseconds')",
+                UuidV7::next);
+
+        System.out.printf("%d sales on top of %d: v4 %.0f rows/s, %d MB WAL, %d MB pkey; "
+                        + "v7 %.0f rows/s, %d MB WAL, %d MB pkey%n",
+                MEASURED, PRELOADED,
+                random.rowsPerSecond(), random.walBytes() >> 20, random.indexBytes() >> 20,
+                ordered.rowsPerSecond(), ordered.walBytes() >> 20, ordered.indexBytes() >> 20);
+
+        assertThat(ordered.indexBytes()).isLessThan(random.indexBytes());
+        assertThat(ordered.walBytes()).isLessThan(random.walBytes());
+    }
+
+    private Result run(String table, String preloadId, Supplier<UUID> ids) {
+        jdbcTemplate.execute("""
+                create table %s (
+                    id UUID PRIMARY KEY,
+                    item_id UUID NOT NULL,
+                    quantity INT NOT NULL,
+                    price_at_sale_cents BIGINT NOT NULL,
+                    total_cents BIGINT NOT NULL,
+                    sold_at TIMESTAMPTZ NOT NULL
+                )
+                """.formatted(table));
+        jdbcTemplate.update("""
+                insert into %s
+                select %s, ?, 1, 100, 100, timestamptz '2025-01-01 00:00:00+00' + g * interval '100 microseconds'
+                from generate_series(1, ?) g
+                """.formatted(table, preloadId), ITEM_ID, PRELOADED);
+        jdbcTemplate.execute("checkpoint");
+
+        String walBefore = jdbcTemplate.queryForObject("select pg_current_wal_lsn()::text", String.class);
+        long began = System.nanoTime();
+        for (int inserted = 0; inserted < MEASURED; inserted += BATCH) {
+            List<UUID> batch = new ArrayList<>(BATCH);
+            for (int i = 0; i < Math.min(BATCH, MEASURED - inserted); i++) {
+                batch.add(ids.get());
+            }
+            Timestamp soldAt = Timestamp.from(Instant.now());
+            jdbcTemplate.batchUpdate("insert into " + table + " values (?, ?, 1, 100, 100, ?)", batch, BATCH,
+                    (ps, id) -> {
+                        ps.setObject(1, id);
+                        ps.setObject(2, ITEM_ID);
+                        ps.setTimestamp(3, soldAt);
+                    });
+        }
+        long elapsed = System.nanoTime() - began;
+        Long walBytes = jdbcTemplate.queryForObject(
+                "select pg_wal_lsn_diff(pg_current_wal_lsn(), ?::pg_lsn)::bigint", Long.class, walBefore);
+        Long indexBytes = jdbcTemplate.queryForObject(
+                "select pg_relation_size(?::regclass)", Long.class, table + "_pkey");
+        return new Result(MEASURED * 1e9 / elapsed, walBytes, indexBytes);
+    }
+
+    private record Result(double rowsPerSecond, long walBytes, long indexBytes) {}
+}
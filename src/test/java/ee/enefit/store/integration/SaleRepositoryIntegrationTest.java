@@ -0,0 +1,149 @@
+package ee.enefit.store.integration;
+
+import ee.enefit.store.dto.ItemRequest;
+import ee.enefit.store.dto.SoldItemAggregateDto;
+import ee.enefit.store.entity.SaleEntity;
+import ee.enefit.store.entity.SalesRollupEntity;
+import ee.enefit.store.repository.SaleRepository;
+import ee.enefit.store.repository.SalesRollupRepository;
+import ee.enefit.store.service.ItemService;
+import ee.enefit.store.service.ReportService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SaleRepositoryIntegrationTest extends AbstractPostgresIntegrationTest {
+
+    @Autowired
+    SaleRepository saleRepository;
+    @Autowired
+    SalesRollupRepository salesRollupRepository;
+    @Autowired
+    ItemService itemService;
+    @Autowired
+    ReportService reportService;
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Test
+    void insertIgnoringDuplicates_skipsSalesAlreadyStored() {
+        UUID itemId = createItem();
+        SaleEntity first = sale(itemId);
+        SaleEntity second = sale(itemId);
+
+        saleRepository.insertIgnoringDuplicates(List.of(first));
+        saleRepository.insertIgnoringDuplicates(List.of(first, second, second));
+
+        assertThat(saleRepository.findById(first.getId())).isPresent();
+        assertThat(saleRepository.findById(second.getId())).isPresent();
+        assertThat(saleRepository.findAllById(List.of(first.getId(), second.getId()))).hasSize(2);
+    }
+
+    @Test
+    void insertIgnoringDuplicates_skipsSalesOfDeletedItems_andStoresTheRest() {
+        UUID itemId = createItem();
+        UUID deletedItemId = createItem();
+        itemService.deleteItem(deletedItemId);
+        SaleEntity kept = sale(itemId);
+        SaleEntity orphan = sale(deletedItemId);
+
+        saleRepository.insertIgnoringDuplicates(List.of(orphan, kept));
+
+        assertThat(saleRepository.findById(kept.getId())).isPresent();
+        assertThat(saleRepository.findById(orphan.getId())).isEmpty();
+    }
+
+    @Test
+    void sales_areRoutedToTheirMonthlyPartition_andStayIdempotentThere() {
+        UUID itemId = createItem();
+        Instant nextMonth = ZonedDateTime.now(ZoneOffset.UTC).plusMonths(1)
+                .withDayOfMonth(2).toInstant().truncatedTo(ChronoUnit.MICROS);
+        SaleEntity sale = sale(itemId, nextMonth);
+
+        saleRepository.insertIgnoringDuplicates(List.of(sale));
+        saleRepository.insertIgnoringDuplicates(List.of(sale));
+
+        List<String> partitions = jdbcTemplate.queryForList(
+                "select tableoid::regclass::text from sales where id = ?", String.class, sale.getId());
+        String expected = "sales_" + DateTimeFormatter.ofPattern("yyyy_MM").withZone(ZoneOffset.UTC).format(nextMonth);
+        assertThat(partitions).containsExactly(expected);
+        assertThat(saleRepository.findById(sale.getId())).isPresent();
+    }
+
+    @Test
+    void createMonthlyPartitions_isIdempotent() {
+        saleRepository.createMonthlyPartitions(3);
+
+        assertThat(saleRepository.createMonthlyPartitions(3)).isZero();
+    }
+
+    @Test
+    void insertIgnoringDuplicates_rollsUpOnlyNewlyInsertedSales() {
+        UUID itemId = createItem();
+        Instant hour = Instant.parse("2025-03-01T10:00:00Z");
+        SaleEntity early = sale(itemId, hour.plusSeconds(60));
+        SaleEntity late = sale(itemId, hour.plusSeconds(3_000));
+
+        saleRepository.insertIgnoringDuplicates(List.of(early));
+        saleRepository.insertIgnoringDuplicates(List.of(early, late));
+
+        SalesRollupEntity bucket = salesRollupRepository
+                .findById(new SalesRollupEntity.Key(itemId, hour))
+                .orElseThrow();
+        assertThat(bucket.getUnits()).isEqualTo(4);
+        assertThat(bucket.getRevenueCents()).isEqualTo(1000L);
+        assertThat(bucket.getLastSoldAt()).isEqualTo(late.getSoldAt());
+    }
+
+    @Test
+    void soldItemsSummary_combinesRollupBucketsWithRawEdges() {
+        UUID itemId = createItem();
+        saleRepository.insertIgnoringDuplicates(List.of(
+                sale(itemId, Instant.parse("2025-04-01T09:50:00Z")),
+                sale(itemId, Instant.parse("2025-04-01T10:10:00Z")),
+                sale(itemId, Instant.parse("2025-04-01T11:30:00Z")),
+                sale(itemId, Instant.parse("2025-04-01T12:40:00Z")),
+                sale(itemId, Instant.parse("2025-04-01T13:05:00Z"))));
+
+        List<SoldItemAggregateDto> summary = reportService.getSoldItemsSummary(
+                Instant.parse("2025-04-01T10:00:00Z"), Instant.parse("2025-04-01T12:45:00Z"));
+
+        SoldItemAggregateDto row = summary.stream()
+                .filter(r -> r.itemId().equals(itemId))
+                .findFirst()
+                .orElseThrow();
+        assertThat(row.unitsSold()).isEqualTo(6L);
+        assertThat(row.revenueCents()).isEqualTo(1500L);
+        assertThat(row.lastSoldAt()).isEqualTo(Instant.parse("2025-04-01T12:40:00Z"));
+    }
+
+    private UUID createItem() {
+        return itemService.createItem(
+                new ItemRequest("sold-" + UUID.randomUUID(), 250L, 100)).getId();
+    }
+
+    private static SaleEntity sale(UUID itemId) {
+        return sale(itemId, Instant.now().truncatedTo(ChronoUnit.MICROS));
+    }
+
+    private static SaleEntity sale(UUID itemId, Instant soldAt) {
+        return SaleEntity.builder()
+                .id(UUID.randomUUID())
+                .itemId(itemId)
+                .quantity(2)
+                .priceAtSaleCents(250L)
+                .totalCents(500L)
+                .soldAt(soldAt)
+                .build();
+    }
+}
@@ -0,0 +1,104 @@
+package ee.enefit.store.integration;
+
+import ee.enefit.store.dto.ItemRequest;
+import ee.enefit.store.service.ItemService;
+import ee.enefit.store.service.SalesExportService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.zip.GZIPOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Exports tens of millions of sales through the cursor into a byte-counting sink. Held in memory, the rows
+ * alone would take several times the test JVM's heap, so completing at all shows that the export streams.
+ * The size can be overridden with {@code -Dbenchmark.export.rows}.
+ */
+@Tag("benchmark")
+class SalesExportBenchmarkTest extends AbstractPostgresIntegrationTest {
+
+    private static final int ROWS = Integer.getInteger("benchmark.export.rows", 10_000_000);
+    private static final Instant FROM = Instant.parse("2017-01-01T00:00:00Z");
+    private static final Instant TO = Instant.parse("2018-01-01T00:00:00Z");
+
+    @Autowired
+    SalesExportService exportService;
+    @Autowired
+    ItemService itemService;
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void preload() {
+        UUID itemId = itemService.createItem(
+                new ItemRequest("export-bench-" + UUID.randomUUID(), 199L, 1)).getId();
+        // one sale per millisecond from FROM on; 10M rows stay well inside the year
+        jdbcTemplate.update("""
+                insert into sales (id, item_id, quantity, price_at_sale_cents, total_cents, sold_at)
+                select gen_random_uuid(), ?, 1 + g % 5, 199, 199 * (1 + g % 5),
+                       timestamptz '2017-01-01 00:00:00+00' + g * interval '1 millisecond'
+                from generate_series(0, ? - 1) g
+                """, itemId, ROWS);
+        jdbcTemplate.execute("analyze sales");
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("delete from sales where sold_at >= ? and sold_at < ?",
+                Timestamp.from(FROM), Timestamp.from(TO));
+        jdbcTemplate.update("delete from items where name like 'export-bench-%'");
+    }
+
+    @Test
+    void csvExport_throughput() throws IOException {
+        run(SalesExportService.Format.CSV, false);
+    }
+
+    @Test
+    void gzippedNdjsonExport_throughput() throws IOException {
+        run(SalesExportService.Format.NDJSON, true);
+    }
+
+    private void run(SalesExportService.Format format, boolean gzip) throws IOException {
+        CountingSink sink = new CountingSink();
+        long began = System.nanoTime();
+        long exported;
+        if (gzip) {
+            GZIPOutputStream compressed = new GZIPOutputStream(sink, 1 << 16);
+            exported = exportService.exportSales(FROM, TO, format, compressed);
+            compressed.finish();
+        } else {
+            exported = exportService.exportSales(FROM, TO, format, sink);
+        }
+        double seconds = (System.nanoTime() - began) / 1e9;
+
+        System.out.printf("%s%s: exported %d sales in %.1f s: %.0f rows/s, %d MB written, max heap %d MB%n",
+                format, gzip ? " (gzip)" : "", exported, seconds, exported / seconds, sink.bytes >> 20,
+                Runtime.getRuntime().maxMemory() >> 20);
+        assertThat(exported).isEqualTo(ROWS);
+    }
+
+    private static final class CountingSink extends OutputStream {
+        private long bytes;
+
+        @Override
+        public void write(int b) {
+            bytes++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            bytes += len;
+        }
+    }
+}
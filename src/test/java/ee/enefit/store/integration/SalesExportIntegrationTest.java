@@ -0,0 +1,123 @@
+package ee.enefit.store.integration;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import ee.enefit.store.dto.ItemRequest;
+import ee.enefit.store.dto.SaleExportRow;
+import ee.enefit.store.entity.SaleEntity;
+import ee.enefit.store.repository.SaleRepository;
+import ee.enefit.store.service.ItemService;
+import ee.enefit.store.service.SalesExportService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SalesExportIntegrationTest extends AbstractPostgresIntegrationTest {
+
+    @Autowired
+    SalesExportService exportService;
+    @Autowired
+    SaleRepository saleRepository;
+    @Autowired
+    ItemService itemService;
+    @Autowired
+    TransactionTemplate transactionTemplate;
+    @Autowired
+    ObjectMapper objectMapper;
+
+    @Test
+    void csvExport_writesRangeInSoldAtOrder_withQuotedNamesAndDecimalAmounts() throws IOException {
+        String itemName = "Export, \"quoted\" " + UUID.randomUUID();
+        UUID itemId = createItem(itemName);
+        SaleEntity first = sale(itemId, Instant.parse("2019-06-14T00:00:00Z"), 199L);
+        SaleEntity second = sale(itemId, Instant.parse("2019-06-14T23:59:59.999999Z"), 5L);
+        saleRepository.insertIgnoringDuplicates(List.of(
+                second,
+                first,
+                sale(itemId, Instant.parse("2019-06-13T23:59:59.999999Z"), 1L),
+                sale(itemId, Instant.parse("2019-06-15T00:00:00Z"), 1L)));
+
+        String csv = export(Instant.parse("2019-06-14T00:00:00Z"), Instant.parse("2019-06-15T00:00:00Z"),
+                SalesExportService.Format.CSV);
+
+        String name = "\"" + itemName.replace("\"", "\"\"") + "\"";
+        assertThat(csv.split("\n")).containsExactly(
+                "sale_id,sold_at,item_id,item_name,quantity,price_at_sale,total",
+                first.getId() + ",2019-06-14T00:00:00Z," + itemId + "," + name + ",2,1.99,3.98",
+                second.getId() + ",2019-06-14T23:59:59.999999Z," + itemId + "," + name + ",2,0.05,0.10");
+    }
+
+    @Test
+    void ndjsonExport_writesOneSaleObjectPerLine() throws IOException {
+        String itemName = "export-nd-" + UUID.randomUUID();
+        UUID itemId = createItem(itemName);
+        SaleEntity sale = sale(itemId, Instant.parse("2019-07-02T10:15:30Z"), 250L);
+        saleRepository.insertIgnoringDuplicates(List.of(sale));
+
+        String ndjson = export(Instant.parse("2019-07-02T00:00:00Z"), Instant.parse("2019-07-03T00:00:00Z"),
+                SalesExportService.Format.NDJSON);
+
+        assertThat(ndjson).endsWith("\n");
+        JsonNode row = objectMapper.readTree(ndjson.trim());
+        assertThat(row.get("saleId").asText()).isEqualTo(sale.getId().toString());
+        assertThat(row.get("itemName").asText()).isEqualTo(itemName);
+        assertThat(row.get("soldAt").asText()).isEqualTo("2019-07-02T10:15:30Z");
+        assertThat(row.get("priceAtSale").decimalValue()).isEqualByComparingTo("2.50");
+        assertThat(row.get("total").decimalValue()).isEqualByComparingTo("5.00");
+    }
+
+    @Test
+    void exportSales_readsThroughCursorInSmallFetches() {
+        UUID itemId = createItem("export-cursor-" + UUID.randomUUID());
+        List<SaleEntity> sales = new ArrayList<>();
+        Instant start = Instant.parse("2019-08-01T00:00:00Z");
+        for (int i = 0; i < 25; i++) {
+            sales.add(sale(itemId, start.plusSeconds(i), 100L));
+        }
+        saleRepository.insertIgnoringDuplicates(sales);
+
+        List<SaleExportRow> rows = new ArrayList<>();
+        Long exported = transactionTemplate.execute(status -> {
+            try {
+                return saleRepository.exportSales(start, start.plusSeconds(3_600), 4, rows::add);
+            } catch (IOException e) {
+                throw new AssertionError(e);
+            }
+        });
+
+        assertThat(exported).isEqualTo(25L);
+        assertThat(rows).extracting(SaleExportRow::saleId)
+                .containsExactlyElementsOf(sales.stream().map(SaleEntity::getId).toList());
+    }
+
+    private String export(Instant from, Instant to, SalesExportService.Format format) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.exportSales(from, to, format, out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    private UUID createItem(String name) {
+        return itemService.createItem(new ItemRequest(name, 250L, 100)).getId();
+    }
+
+    private static SaleEntity sale(UUID itemId, Instant soldAt, long priceCents) {
+        return SaleEntity.builder()
+                .id(UUID.randomUUID())
+                .itemId(itemId)
+                .quantity(2)
+                .priceAtSaleCents(priceCents)
+                .totalCents(priceCents * 2)
+                .soldAt(soldAt)
+                .build();
+    }
+}
@@ -0,0 +1,58 @@
+package ee.enefit.store.integration;
+
+import ee.enefit.store.dto.ItemRequest;
+import ee.enefit.store.repository.ItemRepository;
+import ee.enefit.store.service.ItemService;
+import ee.enefit.store.service.StockReservationService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Tag("benchmark")
+@TestPropertySource(properties = "app.reservation.enabled=true")
+class StockReservationBenchmarkTest extends AbstractPostgresIntegrationTest {
+
+    private static final int THREADS = 64;
+    private static final int SELLS_PER_THREAD = 200;
+    private static final int STOCK = THREADS * SELLS_PER_THREAD * 3 / 4;
+
+    @Autowired
+    ItemService itemService;
+    @Autowired
+    StockReservationService reservations;
+    @Autowired
+    ItemRepository itemRepository;
+
+    @Test
+    void hotItem_reservationLayerVersusPlainDatabasePath() throws Exception {
+        UUID dbItem = createItem();
+        UUID reservedItem = createItem();
+
+        Hammer.Result db = run(dbItem, itemService::sell);
+        Hammer.Result reserved = run(reservedItem, reservations::sell);
+
+        System.out.printf("hot item, %d threads: db path %.0f sells/s, reservation layer %.0f sells/s%n",
+                THREADS, db.successesPerSecond(), reserved.successesPerSecond());
+
+        assertThat(db.successes() + itemRepository.findQuantityById(dbItem).orElseThrow()).isEqualTo(STOCK);
+        assertThat(reserved.successes() + itemRepository.findQuantityById(reservedItem).orElseThrow()).isEqualTo(STOCK);
+    }
+
+    private Hammer.Result run(UUID itemId, BiConsumer<UUID, Integer> sell) throws Exception {
+        // demand exceeds stock on purpose, so out-of-stock rejections are expected
+        return Hammer.run(THREADS, SELLS_PER_THREAD, Duration.ofMinutes(5), thread -> sell.accept(itemId, 1),
+                IllegalArgumentException.class);
+    }
+
+    private UUID createItem() {
+        ItemRequest request = new ItemRequest("bench-" + UUID.randomUUID(), 300L, STOCK);
+        return itemService.createItem(request).getId();
+    }
+}
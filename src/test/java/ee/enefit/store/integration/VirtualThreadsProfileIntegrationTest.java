@@ -0,0 +1,64 @@
+package ee.enefit.store.integration;
+
+import ee.enefit.store.dto.ItemRequest;
+import ee.enefit.store.service.ItemService;
+import ee.enefit.store.service.StockReservationService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the {@code virtual-threads} profile with a tiny pool and many more virtual-thread callers than carriers.
+ * Cache and reservation-counter misses load from the database; if a load ran inside a cache or map lock, its
+ * caller would stay pinned while waiting for a connection, and once every carrier is pinned the transactions
+ * holding the connections can no longer be scheduled, so callers fail on the pool timeout.
+ */
+@ActiveProfiles("virtual-threads")
+@TestPropertySource(properties = {
+        "spring.datasource.hikari.maximum-pool-size=2",
+        "app.reservation.enabled=true"
+})
+class VirtualThreadsProfileIntegrationTest extends AbstractPostgresIntegrationTest {
+
+    private static final int CALLERS = Math.max(64, Runtime.getRuntime().availableProcessors() * 8);
+
+    @Autowired
+    ItemService itemService;
+    @Autowired
+    StockReservationService reservations;
+
+    @Value("${spring.datasource.hikari.connection-timeout}")
+    long poolTimeoutMs;
+
+    @Test
+    void cacheAndCounterMisses_doNotStallCallersBeyondThePool() throws Exception {
+        String run = UUID.randomUUID().toString();
+        List<UUID> items = new ArrayList<>(CALLERS);
+        for (int i = 0; i < CALLERS; i++) {
+            items.add(itemService.createItem(new ItemRequest("vt-" + i + "-" + run, 100L, 10)).getId());
+        }
+
+        Hammer.Result result = Hammer.runOnVirtualThreads(CALLERS, 1, Duration.ofMinutes(1), thread -> {
+            UUID item = items.get(thread);
+            switch (thread % 3) {
+                case 0 -> assertThat(itemService.getItemById(item)).isPresent();
+                case 1 -> reservations.sell(item, 1);
+                default -> itemService.createItem(new ItemRequest("vt-new-" + thread + "-" + run, 100L, 1));
+            }
+        });
+
+        assertThat(result.successes()).isEqualTo(CALLERS);
+        assertThat(result.elapsedNanos())
+                .as("callers finished before the %d ms pool timeout", poolTimeoutMs)
+                .isLessThan(Duration.ofMillis(poolTimeoutMs).toNanos());
+    }
+}
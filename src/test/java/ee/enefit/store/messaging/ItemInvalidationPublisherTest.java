@@ -0,0 +1,89 @@
+package ee.enefit.store.messaging;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.boot.ssl.DefaultSslBundleRegistry;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class ItemInvalidationPublisherTest {
+
+    @SuppressWarnings("unchecked")
+    KafkaTemplate<String, String> kafkaTemplate = mock(KafkaTemplate.class);
+    ItemInvalidationPublisher publisher;
+
+    @BeforeEach
+    void setUp() {
+        publisher = new ItemInvalidationPublisher(new KafkaProperties(), new DefaultSslBundleRegistry());
+        ReflectionTestUtils.setField(publisher, "kafkaTemplate", kafkaTemplate);
+        ReflectionTestUtils.setField(publisher, "topic", "items.invalidated.v1");
+        ReflectionTestUtils.setField(publisher, "maxPending", 10_000);
+        when(kafkaTemplate.send(eq("items.invalidated.v1"), anyString())).thenReturn(new CompletableFuture<>());
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        publisher.destroy();
+    }
+
+    @Test
+    void publish_onlyQueues_andFlushSendsEachIdOnce() {
+        UUID hot = UUID.randomUUID();
+        UUID other = UUID.randomUUID();
+
+        for (int i = 0; i < 100; i++) {
+            publisher.publish(List.of(hot));
+        }
+        publisher.publish(List.of(hot, other));
+        verifyNoInteractions(kafkaTemplate);
+
+        publisher.flush();
+
+        ArgumentCaptor<String> value = ArgumentCaptor.forClass(String.class);
+        verify(kafkaTemplate).send(eq("items.invalidated.v1"), value.capture());
+        assertThat(value.getValue().split(",")).containsExactlyInAnyOrder(hot.toString(), other.toString());
+    }
+
+    @Test
+    void flush_splitsLargeBatchesIntoSeveralRecords() {
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < ItemInvalidationPublisher.MAX_IDS_PER_RECORD + 1; i++) {
+            ids.add(UUID.randomUUID());
+        }
+        publisher.publish(ids);
+
+        publisher.flush();
+
+        verify(kafkaTemplate, times(2)).send(eq("items.invalidated.v1"), anyString());
+    }
+
+    @Test
+    void publish_dropsIds_whileTooManyAreWaiting() {
+        ReflectionTestUtils.setField(publisher, "maxPending", 2);
+        publisher.publish(List.of(UUID.randomUUID(), UUID.randomUUID()));
+        publisher.publish(List.of(UUID.randomUUID()));
+
+        publisher.flush();
+
+        ArgumentCaptor<String> value = ArgumentCaptor.forClass(String.class);
+        verify(kafkaTemplate).send(eq("items.invalidated.v1"), value.capture());
+        assertThat(value.getValue().split(",")).hasSize(2);
+    }
+}
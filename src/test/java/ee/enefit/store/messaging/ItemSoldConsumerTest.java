@@ -0,0 +1,62 @@
+package ee.enefit.store.messaging;
+
+import ee.enefit.store.entity.SaleEntity;
+import ee.enefit.store.repository.SaleRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class ItemSoldConsumerTest {
+
+    @Mock
+    SaleRepository saleRepository;
+
+    @InjectMocks
+    ItemSoldConsumer consumer;
+
+    @Test
+    void handle_writesWholeBatchWithOneInsertCall() {
+        ItemSoldEvent first = new ItemSoldEvent(UUID.randomUUID(), UUID.randomUUID(), 2,
+                999L, 1998L, Instant.parse("2025-09-12T10:00:00Z"));
+        ItemSoldEvent second = new ItemSoldEvent(UUID.randomUUID(), UUID.randomUUID(), 1,
+                500L, 500L, Instant.parse("2025-09-12T10:00:01Z"));
+
+        consumer.handle(List.of(first, second));
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<SaleEntity>> captor = ArgumentCaptor.forClass(List.class);
+        verify(saleRepository).insertIgnoringDuplicates(captor.capture());
+        List<SaleEntity> sales = captor.getValue();
+        assertThat(sales).hasSize(2);
+        assertThat(sales.get(0).getId()).isEqualTo(first.saleId());
+        assertThat(sales.get(0).getItemId()).isEqualTo(first.itemId());
+        assertThat(sales.get(0).getQuantity()).isEqualTo(2);
+        assertThat(sales.get(0).getTotalCents()).isEqualTo(1998L);
+        assertThat(sales.get(0).getSoldAt()).isEqualTo(first.soldAt());
+        assertThat(sales.get(1).getId()).isEqualTo(second.saleId());
+    }
+
+    @Test
+    void handle_truncatesNanosecondSoldAtOfOlderJsonEvents() {
+        ItemSoldEvent event = new ItemSoldEvent(UUID.randomUUID(), UUID.randomUUID(), 1,
+                500L, 500L, Instant.parse("2025-09-12T10:00:00.123456789Z"));
+
+        consumer.handle(List.of(event));
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<SaleEntity>> captor = ArgumentCaptor.forClass(List.class);
+        verify(saleRepository).insertIgnoringDuplicates(captor.capture());
+        assertThat(captor.getValue().get(0).getSoldAt()).isEqualTo(Instant.parse("2025-09-12T10:00:00.123456Z"));
+    }
+}
@@ -0,0 +1,68 @@
+package ee.enefit.store.messaging;
+
+import org.apache.kafka.common.errors.SerializationException;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ItemSoldEventSerdeTest {
+
+    static final String TOPIC = "items.sold.v1";
+
+    final ItemSoldEventSerializer serializer = new ItemSoldEventSerializer();
+    final ItemSoldEventDeserializer deserializer = new ItemSoldEventDeserializer();
+
+    final ItemSoldEvent event = new ItemSoldEvent(UUID.randomUUID(), UUID.randomUUID(), 3,
+            1999L, 5997L, Instant.parse("2025-09-12T10:00:00.123456Z"));
+
+    @Test
+    void binary_roundTripsEvent() {
+        byte[] bytes = serializer.serialize(TOPIC, event);
+
+        assertThat(bytes).hasSize(ItemSoldEventSerializer.V1_SIZE);
+        assertThat(bytes[0]).isEqualTo(ItemSoldEventSerializer.VERSION_1);
+        assertThat(deserializer.deserialize(TOPIC, bytes)).isEqualTo(event);
+    }
+
+    @Test
+    void binary_truncatesTimestampToMicros_likeThePostgresColumn() {
+        ItemSoldEvent nanos = new ItemSoldEvent(event.saleId(), event.itemId(), 1, 100L, 100L,
+                Instant.parse("1969-12-31T23:59:59.999999999Z"));
+
+        ItemSoldEvent read = deserializer.deserialize(TOPIC, serializer.serialize(TOPIC, nanos));
+
+        assertThat(read.soldAt()).isEqualTo(Instant.parse("1969-12-31T23:59:59.999999Z"));
+    }
+
+    @Test
+    void deserializer_stillReadsJsonRecords() {
+        try (JsonSerializer<ItemSoldEvent> json = new JsonSerializer<ItemSoldEvent>().noTypeInfo()) {
+            byte[] bytes = json.serialize(TOPIC, event);
+
+            assertThat(new String(bytes)).contains("\"priceAtSale\":19.99", "\"total\":59.97");
+            assertThat(deserializer.deserialize(TOPIC, bytes)).isEqualTo(event);
+            assertThat(serializer.serialize(TOPIC, event).length).isLessThan(bytes.length / 2);
+        }
+    }
+
+    @Test
+    void deserializer_rejectsUnknownVersion() {
+        byte[] bytes = serializer.serialize(TOPIC, event);
+        bytes[0] = 2;
+
+        assertThatThrownBy(() -> deserializer.deserialize(TOPIC, bytes))
+                .isInstanceOf(SerializationException.class)
+                .hasMessageContaining("version 2");
+    }
+
+    @Test
+    void nullPayload_isPassedThrough() {
+        assertThat(serializer.serialize(TOPIC, null)).isNull();
+        assertThat(deserializer.deserialize(TOPIC, null)).isNull();
+    }
+}
@@ -0,0 +1,39 @@
+package ee.enefit.store.messaging;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ItemSoldProducerTest {
+
+    @Mock
+    KafkaTemplate<String, ItemSoldEvent> kafkaTemplate;
+
+    @InjectMocks
+    ItemSoldProducer producer;
+
+    @Test
+    void publish_keysRecordByItemId_soSalesOfOneItemShareAPartition() {
+        ReflectionTestUtils.setField(producer, "topic", "items.sold.v1");
+        UUID itemId = UUID.randomUUID();
+        ItemSoldEvent event = new ItemSoldEvent(UUID.randomUUID(), itemId, 1,
+                100L, 100L, Instant.now());
+        when(kafkaTemplate.send("items.sold.v1", itemId.toString(), event)).thenReturn(new CompletableFuture<>());
+
+        producer.publish(event);
+
+        verify(kafkaTemplate).send("items.sold.v1", itemId.toString(), event);
+    }
+}
@@ -0,0 +1,218 @@
+package ee.enefit.store.messaging;
+
+import ee.enefit.store.entity.OutboxEntity;
+import ee.enefit.store.repository.OutboxRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxRelayTest {
+
+    @Mock OutboxRepository outboxRepository;
+    @Mock ItemSoldOutbox outbox;
+    @Mock ItemSoldProducer producer;
+    @Mock TransactionTemplate transactionTemplate;
+
+    @InjectMocks OutboxRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(relay, "batchSize", 10);
+        ReflectionTestUtils.setField(relay, "sendTimeoutMs", 1000L);
+        ReflectionTestUtils.setField(relay, "claimMs", 5000L);
+        ReflectionTestUtils.setField(relay, "backoffInitialMs", 60_000L);
+        ReflectionTestUtils.setField(relay, "backoffMaxMs", 60_000L);
+        lenient().when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(mock(TransactionStatus.class)));
+        lenient().doAnswer(invocation -> {
+            invocation.<Consumer<TransactionStatus>>getArgument(0).accept(mock(TransactionStatus.class));
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+    }
+
+    @Test
+    void relayBatch_returnsZero_whenOutboxEmpty() {
+        when(outboxRepository.claimNextBatch(10, 5000L)).thenReturn(List.of());
+
+        assertThat(relay.relayBatch().relayed()).isZero();
+        verify(producer, never()).publish(any());
+    }
+
+    @Test
+    void relayBatch_deletesOnlyAcknowledgedRows() {
+        OutboxEntity first = row(1L);
+        OutboxEntity second = row(2L);
+        ItemSoldEvent firstEvent = event();
+        ItemSoldEvent secondEvent = event();
+        when(outboxRepository.claimNextBatch(10, 5000L)).thenReturn(List.of(first, second));
+        when(outbox.read(first)).thenReturn(firstEvent);
+        when(outbox.read(second)).thenReturn(secondEvent);
+        when(producer.publish(firstEvent)).thenReturn(CompletableFuture.completedFuture(sendResult()));
+        when(producer.publish(secondEvent)).thenReturn(CompletableFuture.failedFuture(new RuntimeException("broker down")));
+
+        OutboxRelay.RelayResult result = relay.relayBatch();
+
+        assertThat(result.relayed()).isEqualTo(1);
+        assertThat(result.complete()).isFalse();
+        verify(outboxRepository).deleteAllByIdInBatch(List.of(1L));
+        verify(outboxRepository).releaseClaims(List.of(2L));
+    }
+
+    @Test
+    void relayBatch_deletesAcknowledgedRowsAfterAFailedOne() {
+        OutboxEntity first = row(1L);
+        OutboxEntity second = row(2L);
+        ItemSoldEvent firstEvent = event();
+        ItemSoldEvent secondEvent = event();
+        when(outboxRepository.claimNextBatch(10, 5000L)).thenReturn(List.of(first, second));
+        when(outbox.read(first)).thenReturn(firstEvent);
+        when(outbox.read(second)).thenReturn(secondEvent);
+        when(producer.publish(firstEvent)).thenReturn(CompletableFuture.failedFuture(new RuntimeException("broker down")));
+        when(producer.publish(secondEvent)).thenReturn(CompletableFuture.completedFuture(sendResult()));
+
+        assertThat(relay.relayBatch().relayed()).isEqualTo(1);
+        verify(outboxRepository).deleteAllByIdInBatch(List.of(2L));
+        verify(outboxRepository).releaseClaims(List.of(1L));
+    }
+
+    @Test
+    void relayBatch_stopsSending_whenProducerFailsSynchronously() {
+        OutboxEntity first = row(1L);
+        OutboxEntity second = row(2L);
+        ItemSoldEvent firstEvent = event();
+        when(outboxRepository.claimNextBatch(10, 5000L)).thenReturn(List.of(first, second));
+        when(outbox.read(first)).thenReturn(firstEvent);
+        when(producer.publish(firstEvent)).thenThrow(new IllegalStateException("metadata not available"));
+
+        assertThat(relay.relayBatch().relayed()).isZero();
+        verify(outbox, never()).read(second);
+        verify(outboxRepository).releaseClaims(List.of(1L, 2L));
+    }
+
+    @Test
+    void relayBatch_waitsForAcksOutsideAnyTransaction() {
+        OutboxEntity first = row(1L);
+        ItemSoldEvent firstEvent = event();
+        CompletableFuture<SendResult<String, ItemSoldEvent>> ack = new CompletableFuture<>();
+        when(outboxRepository.claimNextBatch(10, 5000L)).thenReturn(List.of(first));
+        when(outbox.read(first)).thenReturn(firstEvent);
+        when(producer.publish(firstEvent)).thenAnswer(invocation -> {
+            verify(transactionTemplate, times(1)).execute(any());
+            verify(transactionTemplate, never()).executeWithoutResult(any());
+            ack.complete(sendResult());
+            return ack;
+        });
+
+        assertThat(relay.relayBatch().complete()).isTrue();
+        verify(outboxRepository).deleteAllByIdInBatch(List.of(1L));
+        verify(outboxRepository, never()).releaseClaims(any());
+    }
+
+    @Test
+    void relay_backsOff_afterIncompleteBatch() {
+        OutboxEntity first = row(1L);
+        ItemSoldEvent firstEvent = event();
+        when(outboxRepository.claimNextBatch(10, 5000L)).thenReturn(List.of(first));
+        when(outbox.read(first)).thenReturn(firstEvent);
+        when(producer.publish(firstEvent)).thenReturn(CompletableFuture.failedFuture(new RuntimeException("broker down")));
+
+        relay.relay();
+        relay.relay();
+
+        verify(outboxRepository, times(1)).claimNextBatch(10, 5000L);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void relay_drainsFullBatchesUntilOutboxIsShort() {
+        ReflectionTestUtils.setField(relay, "batchSize", 2);
+        List<OutboxEntity> full = List.of(row(1L), row(2L));
+        List<OutboxEntity> rest = List.of(row(3L));
+        when(outboxRepository.claimNextBatch(2, 5000L)).thenReturn(full, rest, full, rest);
+        when(outbox.read(any())).thenAnswer(invocation -> event());
+        when(producer.publish(any())).thenAnswer(invocation -> CompletableFuture.completedFuture(sendResult()));
+
+        relay.relay();
+        relay.relay();
+
+        verify(outboxRepository, times(4)).claimNextBatch(2, 5000L);
+    }
+
+    @Test
+    void start_rejectsAClaimThatCouldExpireBeforeTheSendTimeout() {
+        ReflectionTestUtils.setField(relay, "claimMs", 1000L);
+
+        assertThatThrownBy(relay::start)
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("app.outbox.claim-ms");
+    }
+
+    @Test
+    void backlogGauge_readsTheLastCountInsteadOfQueryingOnEveryScrape() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        OutboxRelay started = new OutboxRelay(outboxRepository, outbox, producer, transactionTemplate, registry);
+        ReflectionTestUtils.setField(started, "sendTimeoutMs", 1000L);
+        ReflectionTestUtils.setField(started, "claimMs", 5000L);
+        ReflectionTestUtils.setField(started, "pollIntervalMs", 60_000L);
+        ReflectionTestUtils.setField(started, "backlogRefreshMs", 60_000L);
+        when(outboxRepository.count()).thenReturn(42L);
+
+        started.start();
+        try {
+            Gauge backlog = registry.get("store.outbox.backlog").gauge();
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (backlog.value() != 42 && System.nanoTime() < deadline) {
+                Thread.sleep(5);
+            }
+            for (int i = 0; i < 10; i++) {
+                assertThat(backlog.value()).isEqualTo(42);
+            }
+            verify(outboxRepository, times(1)).count();
+        } finally {
+            started.destroy();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static SendResult<String, ItemSoldEvent> sendResult() {
+        return mock(SendResult.class);
+    }
+
+    private static OutboxEntity row(long id) {
+        return OutboxEntity.builder().id(id).payload("{}").createdAt(Instant.now()).build();
+    }
+
+    private static ItemSoldEvent event() {
+        return new ItemSoldEvent(UUID.randomUUID(), UUID.randomUUID(), 1,
+                100L, 100L, Instant.now());
+    }
+}
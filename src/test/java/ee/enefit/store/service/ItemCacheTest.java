@@ -0,0 +1,185 @@
+package ee.enefit.store.service;
+
+import ee.enefit.store.dto.ItemResponse;
+import ee.enefit.store.messaging.ItemInvalidationPublisher;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static java.util.UUID.randomUUID;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+class ItemCacheTest {
+
+    SimpleMeterRegistry meterRegistry;
+    ItemInvalidationPublisher publisher;
+    ItemCache cache;
+
+    UUID id;
+    AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        publisher = mock(ItemInvalidationPublisher.class);
+        StaticListableBeanFactory beans = new StaticListableBeanFactory(Map.of("publisher", publisher));
+        cache = new ItemCache(meterRegistry, beans.getBeanProvider(ItemInvalidationPublisher.class));
+        ReflectionTestUtils.setField(cache, "maxWeightBytes", 1_000_000L);
+        ReflectionTestUtils.setField(cache, "ttlMs", 60_000L);
+        cache.init();
+
+        id = randomUUID();
+        loads = new AtomicInteger();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void get_loadsOnce_andRecordsHitsAndMisses() {
+        assertThat(cache.get(id, this::load)).isPresent();
+        assertThat(cache.get(id, this::load)).isPresent();
+
+        assertThat(loads).hasValue(1);
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "items.byId").tag("result", "hit")
+                .functionCounter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "items.byId").tag("result", "miss")
+                .functionCounter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void get_doesNotCacheAbsentItems() {
+        cache.get(id, key -> {
+            loads.incrementAndGet();
+            return Optional.empty();
+        });
+        cache.get(id, this::load);
+
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void get_doesNotLoseAnInvalidationThatArrivesDuringTheLoad() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread reader = new Thread(() -> cache.get(id, key -> {
+            loading.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return load(key);
+        }));
+        reader.start();
+        assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+
+        Thread invalidator = new Thread(() -> cache.evictLocal(id));
+        invalidator.start();
+        invalidator.join(TimeUnit.SECONDS.toMillis(5));
+        assertThat(invalidator.isAlive()).as("invalidation waited for the load").isFalse();
+        release.countDown();
+        reader.join();
+
+        cache.get(id, this::load);
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void get_sharesALoadInFlight_andPassesItsFailureToEveryCaller() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread loader = new Thread(() -> {
+            try {
+                cache.get(id, key -> {
+                    loading.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    throw new IllegalStateException("database down");
+                });
+            } catch (IllegalStateException expected) {
+                // the loading caller sees the failure too
+            }
+        });
+        loader.start();
+        assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+
+        AtomicReference<Throwable> waiterFailure = new AtomicReference<>();
+        Thread waiter = new Thread(() -> {
+            try {
+                cache.get(id, this::load);
+            } catch (RuntimeException e) {
+                waiterFailure.set(e);
+            }
+        });
+        waiter.start();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (waiter.getState() != Thread.State.WAITING && System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+        release.countDown();
+        loader.join();
+        waiter.join();
+
+        assertThat(waiterFailure.get()).isInstanceOf(IllegalStateException.class).hasMessage("database down");
+        assertThat(loads).hasValue(0);
+        assertThat(cache.get(id, this::load)).isPresent();
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void invalidate_outsideTransaction_evictsAndBroadcastsImmediately() {
+        cache.get(id, this::load);
+
+        cache.invalidate(id);
+        cache.get(id, this::load);
+
+        assertThat(loads).hasValue(2);
+        verify(publisher).publish(List.of(id));
+    }
+
+    @Test
+    void invalidate_insideTransaction_waitsForCommit() {
+        cache.get(id, this::load);
+        TransactionSynchronizationManager.initSynchronization();
+
+        cache.invalidate(id);
+        cache.get(id, this::load);
+        assertThat(loads).hasValue(1);
+        verifyNoInteractions(publisher);
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        cache.get(id, this::load);
+        assertThat(loads).hasValue(2);
+        verify(publisher).publish(List.of(id));
+    }
+
+    private Optional<ItemResponse> load(UUID key) {
+        loads.incrementAndGet();
+        return Optional.of(new ItemResponse(key, "Laptop", 15000L, 10, 1));
+    }
+}
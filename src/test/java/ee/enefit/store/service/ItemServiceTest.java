@@ -1,17 +1,22 @@
 package ee.enefit.store.service;
 
+import ee.enefit.store.dto.ItemCursor;
+import ee.enefit.store.dto.ItemPage;
 import ee.enefit.store.dto.ItemRequest;
 import ee.enefit.store.dto.ItemResponse;
 import ee.enefit.store.dto.ItemUpdateRequest;
+import ee.enefit.store.dto.Money;
 import ee.enefit.store.entity.ItemEntity;
 import ee.enefit.store.messaging.ItemSoldEvent;
-import ee.enefit.store.messaging.ItemSoldProducer;
+import ee.enefit.store.messaging.ItemSoldOutbox;
 import ee.enefit.store.repository.ItemRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.*;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.dao.OptimisticLockingFailureException;
 
@@ -19,12 +24,13 @@ import java.math.BigDecimal;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Function;
 
 import static java.util.UUID.randomUUID;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.when;
 import static org.mockito.Mockito.verify;
@@ -39,7 +45,16 @@ class ItemServiceTest {
     ItemRepository itemRepository;
 
     @Mock
-    ItemSoldProducer producer;
+    ItemSoldOutbox outbox;
+
+    @Mock
+    StockReservationService reservations;
+
+    @Mock
+    ItemCache itemCache;
+
+    @Mock
+    SellMetrics sellMetrics;
 
     @InjectMocks
     ItemService service;
@@ -53,27 +68,29 @@ class ItemServiceTest {
         entity = new ItemEntity();
         entity.setId(id);
         entity.setName("Laptop");
-        entity.setPrice(new BigDecimal("150.00"));
+        entity.setPriceCents(15000L);
         entity.setQuantity(10);
         entity.setVersion(1);
     }
 
     @Test
     void getItemById_returnsMappedResponse_whenPresent() {
-        when(itemRepository.findById(id)).thenReturn(Optional.of(entity));
+        cacheMissesById();
+        when(itemRepository.findOnPrimaryById(id)).thenReturn(Optional.of(entity));
 
         Optional<ItemResponse> out = service.getItemById(id);
 
         assertThat(out).isPresent();
         assertThat(out.get().getId()).isEqualTo(id);
         assertThat(out.get().getName()).isEqualTo("Laptop");
-        assertThat(out.get().getPrice()).isEqualByComparingTo(new BigDecimal("150.00"));
+        assertThat(out.get().getPriceCents()).isEqualTo(15000L);
         assertThat(out.get().getQuantity()).isEqualTo(10);
     }
 
     @Test
     void getItemById_returnsEmpty_whenNotFound() {
-        when(itemRepository.findById(id)).thenReturn(Optional.empty());
+        cacheMissesById();
+        when(itemRepository.findOnPrimaryById(id)).thenReturn(Optional.empty());
 
         Optional<ItemResponse> out = service.getItemById(id);
 
@@ -81,79 +98,87 @@ class ItemServiceTest {
     }
 
     @Test
-    void createItem_persists_andReturnsMappedResponse() {
+    void createItem_insertsInOneStatement_andReturnsMappedResponse() {
         ItemRequest req = new ItemRequest();
         req.setName("Mouse");
-        req.setPrice(new BigDecimal("19.99"));
+        req.setPriceCents(1999L);
         req.setQuantity(5);
 
-        ArgumentCaptor<ItemEntity> captor = ArgumentCaptor.forClass(ItemEntity.class);
-
         ItemEntity saved = new ItemEntity();
         UUID newId = randomUUID();
         saved.setId(newId);
         saved.setName("Mouse");
-        saved.setPrice(new BigDecimal("19.99"));
+        saved.setPriceCents(1999L);
         saved.setQuantity(5);
         saved.setVersion(1);
 
-        when(itemRepository.save(any(ItemEntity.class))).thenReturn(saved);
+        when(itemRepository.insertIfNameFree(any(UUID.class), eq("Mouse"), eq(1999L), eq(5)))
+                .thenReturn(Optional.of(saved));
 
         ItemResponse out = service.createItem(req);
 
-        verify(itemRepository).save(captor.capture());
-        ItemEntity toSave = captor.getValue();
-        assertThat(toSave.getName()).isEqualTo("Mouse");
-        assertThat(toSave.getPrice()).isEqualByComparingTo("19.99");
-        assertThat(toSave.getQuantity()).isEqualTo(5);
-        assertThat(toSave.getVersion()).isEqualTo(1);
-
         assertThat(out.getId()).isEqualTo(newId);
         assertThat(out.getName()).isEqualTo("Mouse");
-        assertThat(out.getPrice()).isEqualByComparingTo("19.99");
+        assertThat(out.getPriceCents()).isEqualTo(1999L);
         assertThat(out.getQuantity()).isEqualTo(5);
+        verify(itemRepository, never()).save(any());
     }
 
     @Test
-    void findByName_maps_whenFound() {
-        when(itemRepository.findByNameIgnoreCase("laptop")).thenReturn(Optional.of(entity));
+    void createItem_throwsDuplicateKey_whenNameTaken() {
+        ItemRequest req = new ItemRequest("laptop", 100L, 1);
+        when(itemRepository.insertIfNameFree(any(UUID.class), eq("laptop"), any(), eq(1))).thenReturn(Optional.empty());
 
-        Optional<ItemResponse> out = service.findByName("laptop");
-
-        assertThat(out).isPresent();
-        assertThat(out.get().getName()).isEqualTo("Laptop");
+        assertThatThrownBy(() -> service.createItem(req))
+                .isInstanceOf(DuplicateKeyException.class)
+                .hasMessageContaining("laptop");
     }
 
     @Test
-    void findByName_empty_whenMissing() {
-        when(itemRepository.findByNameIgnoreCase("ghost")).thenReturn(Optional.empty());
+    void listItems_searchesByEscapedPattern_andReturnsCursorWhenMoreRows() {
+        ItemEntity e1 = copyOf(entity);
+        ItemEntity e2 = copyOf(entity);
+        e2.setId(randomUUID());
+        e2.setName("Lapdesk");
+        ItemEntity e3 = copyOf(entity);
+        e3.setId(randomUUID());
+        e3.setName("Lapel");
+        when(itemRepository.searchPage("%lap\\_%", 3)).thenReturn(List.of(e1, e2, e3));
+
+        ItemPage page = service.listItems("lap_", null, 2);
 
-        assertThat(service.findByName("ghost")).isEmpty();
+        assertThat(page.items()).extracting(ItemResponse::getName).containsExactly("Laptop", "Lapdesk");
+        assertThat(ItemCursor.decode(page.nextCursor())).isEqualTo(new ItemCursor("Lapdesk", e2.getId()));
     }
 
+    @Test
+    void listItems_continuesAfterCursor_andEndsWithoutCursor() {
+        ItemCursor after = new ItemCursor("Keyboard", randomUUID());
+        when(itemRepository.findPageAfter("Keyboard", after.id(), 3)).thenReturn(List.of(entity));
+
+        ItemPage page = service.listItems(null, after.encode(), 2);
+
+        assertThat(page.items()).hasSize(1);
+        assertThat(page.nextCursor()).isNull();
+    }
 
     @Test
-    void searchByName_mapsList() {
-        ItemEntity e1 = copyOf(entity);
+    void searchByRelevance_passesPatternAndQuery_andMapsInRankOrder() {
         ItemEntity e2 = copyOf(entity);
         e2.setId(randomUUID());
-        e2.setName("Lapdesk");
-        when(itemRepository.findByNameContainingIgnoreCase("lap"))
-                .thenReturn(List.of(e1, e2));
+        e2.setName("Laptop stand");
+        when(itemRepository.searchBySimilarity("%laptop%", "laptop", 5)).thenReturn(List.of(entity, e2));
 
-        List<ItemResponse> out = service.searchByName("lap");
+        List<ItemResponse> out = service.searchByRelevance("laptop", 5);
 
-        assertThat(out).hasSize(2);
-        assertThat(out.get(0).getName()).isEqualTo("Laptop");
-        assertThat(out.get(1).getName()).isEqualTo("Lapdesk");
+        assertThat(out).extracting(ItemResponse::getName).containsExactly("Laptop", "Laptop stand");
     }
 
     @Test
-    void searchByName_emptyList_whenNoMatches() {
-        when(itemRepository.findByNameContainingIgnoreCase("zzz"))
-                .thenReturn(List.of());
-
-        assertThat(service.searchByName("zzz")).isEmpty();
+    void listItems_rejectsMalformedCursor() {
+        assertThatThrownBy(() -> service.listItems(null, "not-a-cursor", 10))
+                .isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(itemRepository);
     }
 
 
@@ -163,6 +188,7 @@ class ItemServiceTest {
 
         assertThat(service.deleteItem(id)).isTrue();
         verify(itemRepository).deleteById(id);
+        verify(itemCache).invalidate(id);
     }
 
     @Test
@@ -174,84 +200,96 @@ class ItemServiceTest {
     }
 
     @Test
-    void updateItem_updatesFields_andReturnsMappedResponse() {
-        ItemEntity db = copyOf(entity);
-        when(itemRepository.findById(id)).thenReturn(Optional.of(db));
-        when(itemRepository.existsByNameIgnoreCase("NewName")).thenReturn(false);
-
-        ItemEntity afterSave = copyOf(db);
-        afterSave.setName("NewName");
-        afterSave.setPrice(new BigDecimal("12.50"));
-        afterSave.setQuantity(7);
-        when(itemRepository.save(any(ItemEntity.class))).thenReturn(afterSave);
+    void updateItem_updatesFieldsInOneStatement_withoutLoadingEntity() {
+        ItemEntity afterUpdate = copyOf(entity);
+        afterUpdate.setName("NewName");
+        afterUpdate.setPriceCents(1250L);
+        afterUpdate.setQuantity(7);
+        afterUpdate.setVersion(2);
+        when(itemRepository.updateFields(id, "NewName", 1250L, 7, null))
+                .thenReturn(Optional.of(afterUpdate));
 
         ItemUpdateRequest req = new ItemUpdateRequest();
         req.setName("NewName");
-        req.setPrice(12.50);
+        req.setPriceCents(1250L);
         req.setQuantity(7);
 
         Optional<ItemResponse> out = service.updateItem(id, req);
 
         assertThat(out).isPresent();
         assertThat(out.get().getName()).isEqualTo("NewName");
-        assertThat(out.get().getPrice()).isEqualByComparingTo("12.50");
+        assertThat(out.get().getPriceCents()).isEqualTo(1250L);
         assertThat(out.get().getQuantity()).isEqualTo(7);
-        verify(itemRepository).save(argThat(e ->
-                e.getName().equals("NewName")
-                        && e.getPrice().compareTo(new BigDecimal("12.50")) == 0
-                        && e.getQuantity() == 7
-                        && e.getUpdatedAt() != null
-        ));
+        assertThat(out.get().getVersion()).isEqualTo(2);
+        verify(itemRepository, never()).findOnPrimaryById(any());
+        verify(itemCache).invalidate(id);
     }
 
     @Test
     void updateItem_returnsEmpty_whenIdNotFound() {
-        when(itemRepository.findById(id)).thenReturn(Optional.empty());
+        when(itemRepository.updateFields(id, "Anything", null, null, 3)).thenReturn(Optional.empty());
+        when(itemRepository.findQuantityById(id)).thenReturn(Optional.empty());
 
         ItemUpdateRequest req = new ItemUpdateRequest();
         req.setName("Anything");
+        req.setVersion(3);
 
         assertThat(service.updateItem(id, req)).isEmpty();
-        verify(itemRepository, never()).save(any());
     }
 
     @Test
-    void updateItem_throws_whenNameConflictWithOther() {
-        ItemEntity db = copyOf(entity);
-        when(itemRepository.findById(id)).thenReturn(Optional.of(db));
-        when(itemRepository.existsByNameIgnoreCase("Taken")).thenReturn(true);
+    void updateItem_throwsOptimisticLockFailure_whenVersionIsStale() {
+        when(itemRepository.updateFields(id, null, null, 4, 1)).thenReturn(Optional.empty());
+        when(itemRepository.findQuantityById(id)).thenReturn(Optional.of(3));
+
+        ItemUpdateRequest req = new ItemUpdateRequest();
+        req.setQuantity(4);
+        req.setVersion(1);
+
+        assertThatThrownBy(() -> service.updateItem(id, req))
+                .isInstanceOf(OptimisticLockingFailureException.class);
+        verify(sellMetrics).versionConflict();
+        verify(itemRepository, never()).findOnPrimaryById(any());
+        verify(itemCache, never()).invalidate(any());
+    }
+
+    @Test
+    void updateItem_propagatesUniqueViolation_whenRenamedToTakenName() {
+        when(itemRepository.updateFields(id, "Taken", null, null, null))
+                .thenThrow(new DataIntegrityViolationException("uk_items_name"));
 
         ItemUpdateRequest req = new ItemUpdateRequest();
         req.setName("Taken");
 
         assertThatThrownBy(() -> service.updateItem(id, req))
-                .isInstanceOf(IllegalArgumentException.class)
-                .hasMessageContaining("Name already exists");
-        verify(itemRepository, never()).save(any());
+                .isInstanceOf(DataIntegrityViolationException.class);
+        verify(itemCache, never()).invalidate(any());
     }
 
     @Test
-    void sell_happyPath_decrementsStock_saves_publishes_andReturnsEvent() {
-        ItemEntity db = copyOf(entity);
-        db.setQuantity(10);
-        when(itemRepository.findById(id)).thenReturn(Optional.of(db));
-        when(itemRepository.saveAndFlush(any(ItemEntity.class))).thenAnswer(inv -> inv.getArgument(0));
+    void sell_happyPath_decrementsStock_writesOutbox_andReturnsEvent() {
+        when(itemRepository.decrementStock(id, 2)).thenReturn(Optional.of(decrement(15000L, 8)));
 
         ArgumentCaptor<ItemSoldEvent> evtCaptor = ArgumentCaptor.forClass(ItemSoldEvent.class);
 
         ItemSoldEvent evt = service.sell(id, 2);
 
-        verify(itemRepository).saveAndFlush(argThat(e -> e.getQuantity() == 8));
+        verify(itemRepository).decrementStock(id, 2);
+        verify(itemRepository, never()).findOnPrimaryById(any());
 
-        verify(producer).publish(evtCaptor.capture());
+        verify(outbox).enqueue(evtCaptor.capture());
         ItemSoldEvent published = evtCaptor.getValue();
         assertThat(published).isNotNull();
         assertThat(published.itemId()).isEqualTo(id);
         assertThat(published.quantity()).isEqualTo(2);
-        assertThat(published.total()).isEqualByComparingTo(new BigDecimal("300.00"));
+        assertThat(published.priceAtSaleCents()).isEqualTo(15000L);
+        assertThat(published.totalCents()).isEqualTo(30000L);
+        assertThat(published.soldAt().getNano() % 1_000).isZero();
 
         assertThat(evt.itemId()).isEqualTo(id);
-        assertThat(evt.total()).isEqualByComparingTo("300.00");
+        assertThat(evt.totalCents()).isEqualTo(30000L);
+        verify(itemCache).invalidate(id);
+        verify(sellMetrics).stop(any(), eq("sold"));
     }
 
     @Test
@@ -259,78 +297,81 @@ class ItemServiceTest {
         assertThatThrownBy(() -> service.sell(id, 0))
                 .isInstanceOf(IllegalArgumentException.class)
                 .hasMessageContaining("quantity must be > 0");
-        verifyNoInteractions(itemRepository, producer);
+        verifyNoInteractions(itemRepository, outbox);
     }
 
     @Test
     void sell_throws_whenItemNotFound() {
-        when(itemRepository.findById(id)).thenReturn(Optional.empty());
+        when(itemRepository.decrementStock(id, 1)).thenReturn(Optional.empty());
+        when(itemRepository.findQuantityById(id)).thenReturn(Optional.empty());
 
         assertThatThrownBy(() -> service.sell(id, 1))
                 .isInstanceOf(IllegalArgumentException.class)
                 .hasMessageContaining("Item not found");
-        verify(itemRepository, never()).saveAndFlush(any());
-        verifyNoInteractions(producer);
+        verifyNoInteractions(outbox);
+        verify(sellMetrics).itemNotFound();
+        verify(sellMetrics).stop(any(), eq("rejected"));
     }
 
     @Test
     void sell_throws_whenInsufficientStock() {
-        ItemEntity db = copyOf(entity);
-        db.setQuantity(1);
-        when(itemRepository.findById(id)).thenReturn(Optional.of(db));
+        when(itemRepository.decrementStock(id, 2)).thenReturn(Optional.empty());
+        when(itemRepository.findQuantityById(id)).thenReturn(Optional.of(1));
 
         assertThatThrownBy(() -> service.sell(id, 2))
                 .isInstanceOf(IllegalArgumentException.class)
-                .hasMessageContaining("Insufficient stock");
-        verify(itemRepository, never()).saveAndFlush(any());
-        verifyNoInteractions(producer);
+                .hasMessageContaining("Insufficient stock")
+                .hasMessageContaining("available 1");
+        verifyNoInteractions(outbox);
+        verify(sellMetrics).insufficientStock();
+        verify(sellMetrics).stop(any(), eq("rejected"));
     }
 
     @Test
-    void sell_wrapsOptimisticLock_asIllegalState() {
-        ItemEntity db = copyOf(entity);
-        when(itemRepository.findById(id)).thenReturn(Optional.of(db));
-        doThrow(new OptimisticLockingFailureException("boom"))
-                .when(itemRepository).saveAndFlush(any(ItemEntity.class));
-
-        assertThatThrownBy(() -> service.sell(id, 1))
-                .isInstanceOf(IllegalStateException.class)
-                .hasMessageContaining("Concurrent update detected");
-        verifyNoInteractions(producer);
+    void lineTotal_inCents_matchesDecimalMultiplication() {
+        for (long priceCents = 0; priceCents < 1_000_000; priceCents += 997) {
+            for (int quantity = 1; quantity <= 1_000; quantity += 37) {
+                BigDecimal expected = Money.toDecimal(priceCents).multiply(BigDecimal.valueOf(quantity));
+                assertThat(Money.toDecimal(ItemService.lineTotal(priceCents, quantity)))
+                        .isEqualByComparingTo(expected);
+            }
+        }
     }
 
     @Test
-    void isNameConflict_false_whenNullOrBlank() {
-        assertThat(service.isNameConflict(id, null)).isFalse();
-        assertThat(service.isNameConflict(id, "")).isFalse();
-        assertThat(service.isNameConflict(id, "   ")).isFalse();
+    void lineTotal_failsInsteadOfOverflowing() {
+        assertThatThrownBy(() -> ItemService.lineTotal(Long.MAX_VALUE / 2, 3))
+                .isInstanceOf(ArithmeticException.class);
     }
 
-    @Test
-    void isNameConflict_false_whenSameId() {
-        ItemEntity same = copyOf(entity);
-        when(itemRepository.findByNameIgnoreCase("Laptop")).thenReturn(Optional.of(same));
-
-        assertThat(service.isNameConflict(id, "Laptop")).isFalse();
-    }
-
-    @Test
-    void isNameConflict_true_whenDifferentIdHasName() {
-        ItemEntity other = copyOf(entity);
-        other.setId(randomUUID());
-        when(itemRepository.findByNameIgnoreCase("Laptop")).thenReturn(Optional.of(other));
-
-        assertThat(service.isNameConflict(id, "Laptop")).isTrue();
+    private static ItemRepository.StockDecrement decrement(long priceCents, int remaining) {
+        return new ItemRepository.StockDecrement() {
+            @Override
+            public long getPriceCents() {
+                return priceCents;
+            }
+
+            @Override
+            public int getQuantity() {
+                return remaining;
+            }
+        };
     }
 
     private static ItemEntity copyOf(ItemEntity src) {
         ItemEntity e = new ItemEntity();
         e.setId(src.getId());
         e.setName(src.getName());
-        e.setPrice(src.getPrice());
+        e.setPriceCents(src.getPriceCents());
         e.setQuantity(src.getQuantity());
         e.setVersion(src.getVersion());
         e.setUpdatedAt(src.getUpdatedAt());
         return e;
     }
-}
\ No newline at end of file
+
+    @SuppressWarnings("unchecked")
+    private void cacheMissesById() {
+        when(itemCache.get(any(UUID.class), any())).thenAnswer(inv ->
+                inv.getArgument(1, Function.class).apply(inv.getArgument(0)));
+    }
+}
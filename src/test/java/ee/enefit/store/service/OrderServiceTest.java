@@ -0,0 +1,130 @@
+package ee.enefit.store.service;
+
+import ee.enefit.store.dto.CheckoutRequest;
+import ee.enefit.store.entity.ItemEntity;
+import ee.enefit.store.messaging.ItemSoldEvent;
+import ee.enefit.store.messaging.ItemSoldOutbox;
+import ee.enefit.store.repository.ItemRepository;
+import ee.enefit.store.repository.ItemRepositoryCustom.DecrementedLine;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static java.util.UUID.randomUUID;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class OrderServiceTest {
+
+    @Mock
+    ItemRepository itemRepository;
+
+    @Mock
+    ItemSoldOutbox outbox;
+
+    @Mock
+    ItemCache itemCache;
+
+    @Mock
+    SellMetrics sellMetrics;
+
+    @InjectMocks
+    OrderService service;
+
+    @Test
+    void checkout_decrementsAllLinesInOneCall_andEnqueuesEventsAsBatch() {
+        UUID pen = randomUUID();
+        UUID ink = randomUUID();
+        when(itemRepository.decrementStockBatch(Map.of(pen, 3, ink, 1))).thenReturn(List.of(
+                new DecrementedLine(pen, 199L, 7),
+                new DecrementedLine(ink, 450L, 0)));
+
+        List<ItemSoldEvent> events = service.checkout(List.of(
+                new CheckoutRequest.Line(pen, 2),
+                new CheckoutRequest.Line(ink, 1),
+                new CheckoutRequest.Line(pen, 1)));
+
+        assertThat(events).hasSize(2);
+        assertThat(events.get(0).itemId()).isEqualTo(pen);
+        assertThat(events.get(0).quantity()).isEqualTo(3);
+        assertThat(events.get(0).totalCents()).isEqualTo(597L);
+        assertThat(events.get(1).totalCents()).isEqualTo(450L);
+        assertThat(events.get(0).soldAt()).isEqualTo(events.get(1).soldAt());
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<ItemSoldEvent>> captor = ArgumentCaptor.forClass(List.class);
+        verify(outbox).enqueueAll(captor.capture());
+        assertThat(captor.getValue()).containsExactlyElementsOf(events);
+    }
+
+    @Test
+    void checkout_rejectsMergedLinesWhoseTotalOverflows() {
+        UUID pen = randomUUID();
+
+        assertThatThrownBy(() -> service.checkout(List.of(
+                new CheckoutRequest.Line(pen, Integer.MAX_VALUE),
+                new CheckoutRequest.Line(pen, 1))))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("too large");
+        verifyNoInteractions(itemRepository, outbox);
+    }
+
+    @Test
+    void checkout_throwsInsufficientStock_whenALineIsShort() {
+        UUID pen = randomUUID();
+        UUID ink = randomUUID();
+        when(itemRepository.decrementStockBatch(any())).thenReturn(List.of(
+                new DecrementedLine(pen, 199L, 7)));
+        when(itemRepository.findAllById(any())).thenReturn(List.of(item(pen, 7), item(ink, 0)));
+
+        assertThatThrownBy(() -> service.checkout(List.of(
+                new CheckoutRequest.Line(pen, 3),
+                new CheckoutRequest.Line(ink, 1))))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Insufficient stock for item " + ink);
+        verify(outbox, never()).enqueueAll(anyList());
+        verify(sellMetrics).insufficientStock();
+    }
+
+    @Test
+    void checkout_throwsNotFound_whenItemUnknown() {
+        UUID ghost = randomUUID();
+        when(itemRepository.decrementStockBatch(any())).thenReturn(List.of());
+        when(itemRepository.findAllById(any())).thenReturn(List.of());
+
+        assertThatThrownBy(() -> service.checkout(List.of(new CheckoutRequest.Line(ghost, 1))))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Item not found: " + ghost);
+        verifyNoInteractions(outbox);
+    }
+
+    @Test
+    void checkout_throws_whenBasketEmpty() {
+        assertThatThrownBy(() -> service.checkout(List.of()))
+                .isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(itemRepository, outbox);
+    }
+
+    private static ItemEntity item(UUID id, int quantity) {
+        ItemEntity e = new ItemEntity();
+        e.setId(id);
+        e.setName("item-" + id);
+        e.setPriceCents(100L);
+        e.setQuantity(quantity);
+        return e;
+    }
+}
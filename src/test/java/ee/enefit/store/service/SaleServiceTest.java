@@ -4,6 +4,7 @@ import ee.enefit.store.dto.SoldItemAggregateDto;
 import ee.enefit.store.dto.StockLevelViewDto;
 import ee.enefit.store.repository.ItemRepository;
 import ee.enefit.store.repository.SaleRepository;
+import ee.enefit.store.repository.SalesRollupRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -11,7 +12,6 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
-import java.math.BigDecimal;
 import java.time.Instant;
 import java.util.List;
 import java.util.UUID;
@@ -24,6 +24,7 @@ class ReportServiceTest {
 
     @Mock ItemRepository itemRepository;
     @Mock SaleRepository saleRepository;
+    @Mock SalesRollupRepository salesRollupRepository;
 
     @InjectMocks ReportService reportService;
 
@@ -39,7 +40,7 @@ class ReportServiceTest {
         stockDto = new StockLevelViewDto(
                 itemId,
                 "Laptop",
-                new BigDecimal("150.00"),
+                15000L,
                 5,
                 now
         );
@@ -47,7 +48,7 @@ class ReportServiceTest {
                 itemId,
                 "Laptop",
                 10L,
-                new BigDecimal("1500.00"),
+                150000L,
                 now
         );
     }
@@ -61,34 +62,61 @@ class ReportServiceTest {
 
         assertThat(result).containsExactly(stockDto);
         verify(itemRepository).findCurrentStockLevels();
-        verifyNoInteractions(saleRepository);
+        verifyNoInteractions(saleRepository, salesRollupRepository);
     }
 
     @Test
-    void getSoldItemsSummary_usesProvidedBounds() {
-        Instant from = Instant.parse("2024-01-01T00:00:00Z");
-        Instant to   = Instant.parse("2024-12-31T23:59:59Z");
+    void getSoldItemsSummary_withinOneHour_readsOnlyRawSales() {
+        Instant from = Instant.parse("2024-01-01T10:05:00Z");
+        Instant to   = Instant.parse("2024-01-01T10:55:00Z");
 
-        when(saleRepository.findSoldItemsSummary(from, to))
+        when(saleRepository.summarizeRawSales(from, to.plusNanos(1)))
                 .thenReturn(List.of(soldDto));
 
         List<SoldItemAggregateDto> result = reportService.getSoldItemsSummary(from, to);
 
         assertThat(result).containsExactly(soldDto);
-        verify(saleRepository).findSoldItemsSummary(from, to);
+        verifyNoInteractions(salesRollupRepository);
+    }
+
+    @Test
+    void getSoldItemsSummary_usesRollupForWholeHours_andRawSalesForEdges() {
+        Instant from = Instant.parse("2024-01-01T10:30:00Z");
+        Instant to   = Instant.parse("2024-01-01T14:14:59.999999999Z");
+        Instant end  = Instant.parse("2024-01-01T14:15:00Z");
+        Instant firstBucket = Instant.parse("2024-01-01T11:00:00Z");
+        Instant lastBucketEnd = Instant.parse("2024-01-01T14:00:00Z");
+        UUID itemId = soldDto.itemId();
+        UUID otherId = UUID.randomUUID();
+        Instant t = Instant.parse("2024-01-01T12:00:00Z");
+
+        when(salesRollupRepository.summarizeBuckets(firstBucket, lastBucketEnd)).thenReturn(List.of(
+                new SoldItemAggregateDto(itemId, "Laptop", 4L, 60000L, t)));
+        when(saleRepository.summarizeRawSales(from, firstBucket)).thenReturn(List.of(
+                new SoldItemAggregateDto(itemId, "Laptop", 1L, 15000L, from),
+                new SoldItemAggregateDto(otherId, "Mouse", 2L, 2000L, from)));
+        when(saleRepository.summarizeRawSales(lastBucketEnd, end)).thenReturn(List.of(
+                new SoldItemAggregateDto(itemId, "Laptop", 2L, 30000L, lastBucketEnd)));
+
+        List<SoldItemAggregateDto> result = reportService.getSoldItemsSummary(from, to);
+
+        assertThat(result).containsExactly(
+                new SoldItemAggregateDto(itemId, "Laptop", 7L, 105000L, lastBucketEnd),
+                new SoldItemAggregateDto(otherId, "Mouse", 2L, 2000L, from));
     }
 
     @Test
     void getSoldItemsSummary_defaultsWhenNull() {
         Instant expectedFrom = Instant.parse("1970-01-01T00:00:00Z");
-        Instant expectedTo   = Instant.parse("9999-12-31T23:59:59Z");
+        Instant expectedBucketEnd = Instant.parse("9999-12-31T23:00:00Z");
 
-        when(saleRepository.findSoldItemsSummary(expectedFrom, expectedTo))
+        when(salesRollupRepository.summarizeBuckets(expectedFrom, expectedBucketEnd))
                 .thenReturn(List.of(soldDto));
+        when(saleRepository.summarizeRawSales(expectedBucketEnd, Instant.parse("9999-12-31T23:59:59.000000001Z")))
+                .thenReturn(List.of());
 
         List<SoldItemAggregateDto> result = reportService.getSoldItemsSummary(null, null);
 
         assertThat(result).containsExactly(soldDto);
-        verify(saleRepository).findSoldItemsSummary(expectedFrom, expectedTo);
     }
 }
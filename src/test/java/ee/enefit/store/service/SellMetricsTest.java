@@ -0,0 +1,36 @@
+package ee.enefit.store.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SellMetricsTest {
+
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    SellMetrics metrics = new SellMetrics(registry);
+
+    @Test
+    void stop_recordsSellTimerPerOutcome() {
+        metrics.stop(metrics.start(), "sold");
+        metrics.stop(metrics.start(), "sold");
+        metrics.stop(metrics.start(), "rejected");
+
+        assertThat(registry.get("store.sell").tag("outcome", "sold").timer().count()).isEqualTo(2);
+        assertThat(registry.get("store.sell").tag("outcome", "rejected").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void rejectionsAndConflicts_areCountedSeparately() {
+        metrics.insufficientStock();
+        metrics.insufficientStock();
+        metrics.itemNotFound();
+        metrics.versionConflict();
+
+        assertThat(registry.get("store.sell.rejections").tag("reason", "insufficient_stock").counter().count())
+                .isEqualTo(2);
+        assertThat(registry.get("store.sell.rejections").tag("reason", "not_found").counter().count())
+                .isEqualTo(1);
+        assertThat(registry.get("store.item.version.conflicts").counter().count()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,138 @@
+package ee.enefit.store.service;
+
+import ee.enefit.store.messaging.ItemSoldEvent;
+import ee.enefit.store.messaging.ItemSoldOutbox;
+import ee.enefit.store.repository.ItemRepository;
+import ee.enefit.store.repository.ItemRepositoryCustom.DecrementedLine;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class StockReservationServiceTest {
+
+    private static final UUID ITEM_ID = UUID.randomUUID();
+
+    ItemRepository itemRepository = mock(ItemRepository.class);
+    ItemSoldOutbox outbox = mock(ItemSoldOutbox.class);
+    TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+    ItemCache itemCache = mock(ItemCache.class);
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    StockReservationService service = new StockReservationService(itemRepository, outbox, transactionTemplate,
+            itemCache, new SellMetrics(meterRegistry));
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(service, "enabled", true);
+        ReflectionTestUtils.setField(service, "stripes", 2);
+        ReflectionTestUtils.setField(service, "maxBatch", 100);
+        ReflectionTestUtils.setField(service, "confirmTimeoutMs", 5_000L);
+        doAnswer(invocation -> {
+            invocation.<Consumer<TransactionStatus>>getArgument(0).accept(mock(TransactionStatus.class));
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+    }
+
+    @Test
+    void sell_failsWithIllegalState_whenTheFlushDoesNotConfirmInTime() {
+        ReflectionTestUtils.setField(service, "confirmTimeoutMs", 50L);
+        when(itemRepository.findQuantityById(ITEM_ID)).thenReturn(Optional.of(10));
+
+        assertThatThrownBy(() -> service.sell(ITEM_ID, 1))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("not confirmed within 50 ms");
+    }
+
+    @Test
+    void resync_subtractsUnitsOfSellsThatAreStillWaitingToFlush() throws Exception {
+        when(itemRepository.findQuantityById(ITEM_ID)).thenReturn(Optional.of(10));
+        CompletableFuture<ItemSoldEvent> waiting = CompletableFuture.supplyAsync(() -> service.sell(ITEM_ID, 4));
+        awaitPending(1);
+
+        service.resync();
+
+        assertThatThrownBy(() -> service.sell(ITEM_ID, 7))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("available 6");
+
+        when(itemRepository.decrementStockBatch(Map.of(ITEM_ID, 4)))
+                .thenReturn(List.of(new DecrementedLine(ITEM_ID, 100, 6)));
+        service.flush();
+        assertThat(waiting.get().quantity()).isEqualTo(4);
+        assertThat(inFlight()).isEmpty();
+        assertThat(sellTimerCount("sold")).isEqualTo(1);
+        assertThat(sellTimerCount("rejected")).isEqualTo(1);
+    }
+
+    @Test
+    void sell_rejectedForStock_isTimed_andLeavesNoInFlightEntry() {
+        when(itemRepository.findQuantityById(ITEM_ID)).thenReturn(Optional.of(3));
+
+        assertThatThrownBy(() -> service.sell(ITEM_ID, 4))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("available 3");
+
+        assertThat(inFlight()).isEmpty();
+        assertThat(sellTimerCount("rejected")).isEqualTo(1);
+        assertThat(meterRegistry.get("store.sell.rejections").tag("reason", "insufficient_stock").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void flushBatch_defersASaleWhoseItemTotalWouldOverflow() {
+        int half = Integer.MAX_VALUE / 2 + 1;
+        inFlight().computeIfAbsent(ITEM_ID, id -> new LongAdder()).add(2L * half);
+        when(itemRepository.decrementStockBatch(Map.of(ITEM_ID, half)))
+                .thenReturn(List.of(new DecrementedLine(ITEM_ID, 1, Integer.MAX_VALUE - half)));
+        StockReservationService.PendingSale first = new StockReservationService.PendingSale(ITEM_ID, half,
+                new CompletableFuture<>());
+        StockReservationService.PendingSale second = new StockReservationService.PendingSale(ITEM_ID, half,
+                new CompletableFuture<>());
+
+        service.flushBatch(List.of(first, second));
+
+        assertThat(first.result()).isCompleted();
+        assertThat(second.result()).isNotDone();
+        assertThat((Collection<Object>) ReflectionTestUtils.getField(service, "pending")).containsExactly(second);
+        assertThat(inFlight().get(ITEM_ID).sum()).isEqualTo(half);
+    }
+
+    private long sellTimerCount(String outcome) {
+        return meterRegistry.get("store.sell").tag("outcome", outcome).timer().count();
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<UUID, LongAdder> inFlight() {
+        return (Map<UUID, LongAdder>) ReflectionTestUtils.getField(service, "inFlight");
+    }
+
+    private void awaitPending(int count) throws InterruptedException {
+        Collection<?> pending = (Collection<?>) ReflectionTestUtils.getField(service, "pending");
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while (new ArrayList<>(pending).size() < count && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(pending).hasSize(count);
+    }
+}
@@ -0,0 +1,59 @@
+package ee.enefit.store.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StripedStockCounterTest {
+
+    @Test
+    void tryAcquire_borrowsFromOtherCells_whenHomeCellIsShort() {
+        StripedStockCounter counter = new StripedStockCounter(10, 8);
+
+        assertThat(counter.tryAcquire(10)).isTrue();
+        assertThat(counter.available()).isZero();
+        assertThat(counter.tryAcquire(1)).isFalse();
+    }
+
+    @Test
+    void tryAcquire_rejectsAndKeepsStock_whenNotEnoughInTotal() {
+        StripedStockCounter counter = new StripedStockCounter(5, 4);
+
+        assertThat(counter.tryAcquire(6)).isFalse();
+        assertThat(counter.available()).isEqualTo(5);
+    }
+
+    @Test
+    void concurrentAcquires_neverAdmitMoreThanSeeded() throws Exception {
+        int stock = 10_000;
+        int threads = 16;
+        StripedStockCounter counter = new StripedStockCounter(stock, 8);
+        AtomicLong admitted = new AtomicLong();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        for (int t = 0; t < threads; t++) {
+            pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < stock; i++) {
+                    int units = 1 + (i % 3);
+                    if (counter.tryAcquire(units)) {
+                        admitted.addAndGet(units);
+                    }
+                }
+                return null;
+            });
+        }
+        start.countDown();
+        pool.shutdown();
+        assertThat(pool.awaitTermination(1, TimeUnit.MINUTES)).isTrue();
+
+        assertThat(admitted.get()).isLessThanOrEqualTo(stock);
+        assertThat(admitted.get() + counter.available()).isEqualTo(stock);
+    }
+}